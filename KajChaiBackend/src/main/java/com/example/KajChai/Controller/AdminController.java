@@ -7,6 +7,8 @@ import com.example.KajChai.DTO.RejectComplaintRequest;
 import com.example.KajChai.Enum.ComplaintStatus;
 import com.example.KajChai.Service.AdminService;
 import com.example.KajChai.Service.ForumComplaintService;
+import com.example.KajChai.Service.LocationBackfillService;
+import com.example.KajChai.Service.WorkerDashboardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
@@ -34,6 +36,8 @@ public class AdminController {
 
     private final AdminService adminService;
     private final ForumComplaintService forumComplaintService;
+    private final LocationBackfillService locationBackfillService;
+    private final WorkerDashboardService workerDashboardService;
 
     @GetMapping("/forum/posts")
     public ResponseEntity<Map<String, Object>> getAllForumPosts(
@@ -274,4 +278,61 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/location-backfill/start")
+    public ResponseEntity<Map<String, Object>> startLocationBackfill(
+            @RequestParam(defaultValue = "false") boolean restart) {
+        Map<String, Object> response = new HashMap<>();
+        if (locationBackfillService.start(restart)) {
+            response.put("success", true);
+            response.put("message", restart ? "Location backfill restarted" : "Location backfill started");
+            return ResponseEntity.ok(response);
+        }
+        response.put("success", false);
+        response.put("message", "Location backfill is already running");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @PostMapping("/location-backfill/stop")
+    public ResponseEntity<Map<String, Object>> stopLocationBackfill() {
+        locationBackfillService.stop();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Location backfill will stop after the current user");
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/location-backfill/status")
+    public ResponseEntity<Map<String, Object>> getLocationBackfillStatus() {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", locationBackfillService.getStatus());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to retrieve location backfill status: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/worker-stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildWorkerStats() {
+        try {
+            int rows = workerDashboardService.rebuildWorkerStats();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Worker stats rebuilt");
+            response.put("data", rows);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to rebuild worker stats: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
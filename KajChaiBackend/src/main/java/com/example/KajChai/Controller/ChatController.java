@@ -35,19 +35,28 @@ public class ChatController {
     private final WorkerRepository workerRepository;
     private final SimpMessagingTemplate messagingTemplate;
 
+    // Paged when cursor or limit is given, otherwise every room
     @GetMapping("/rooms")
-    public ResponseEntity<Map<String, Object>> getUserChatRooms() {
+    public ResponseEntity<Map<String, Object>> getUserChatRooms(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             
             // Get user ID and role from authentication
             UserContextInfo userInfo = getUserContextFromAuth(auth);
             
-            List<ChatRoomResponse> chatRooms = chatService.getUserChatRooms(userInfo.userId, userInfo.role);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("chatRooms", chatRooms);
+            if (cursor != null || limit != null) {
+                ChatRoomPageResponse page = chatService.getUserChatRoomsPage(userInfo.userId, userInfo.role, cursor, limit);
+                response.put("chatRooms", page.getChatRooms());
+                response.put("nextCursor", page.getNextCursor());
+                response.put("hasNext", page.isHasNext());
+            } else {
+                List<ChatRoomResponse> chatRooms = chatService.getUserChatRooms(userInfo.userId, userInfo.role);
+                response.put("chatRooms", chatRooms);
+            }
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -81,20 +90,39 @@ public class ChatController {
         }
     }
 
+    // Paged when before, after or limit is given (see ChatService.getChatMessagesPage), otherwise the full history.
+    // before and after page in opposite directions, so at most one of them may be given.
     @GetMapping("/rooms/{roomId}/messages")
-    public ResponseEntity<Map<String, Object>> getChatMessages(@PathVariable Long roomId) {
+    public ResponseEntity<Map<String, Object>> getChatMessages(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (before != null && after != null) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to fetch messages: before and after cannot be combined");
+            return ResponseEntity.badRequest().body(response);
+        }
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             UserContextInfo userInfo = getUserContextFromAuth(auth);
             
-            List<ChatMessageResponse> messages = chatService.getChatMessages(roomId, userInfo.userId);
-            
-            // Mark messages as read
-            chatService.markMessagesAsRead(roomId, userInfo.userId);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("messages", messages);
+            if (before != null || after != null || limit != null) {
+                ChatMessagePageResponse page = chatService.getChatMessagesPage(roomId, userInfo.userId, userInfo.role, before, after, limit);
+                response.put("messages", page.getMessages());
+                response.put("hasMore", page.isHasMore());
+                response.put("oldestMessageId", page.getOldestMessageId());
+                response.put("newestMessageId", page.getNewestMessageId());
+            } else {
+                List<ChatMessageResponse> messages = chatService.getChatMessages(roomId, userInfo.userId, userInfo.role);
+                response.put("messages", messages);
+            }
+            
+            // Mark messages as read
+            broadcastReadReceipt(chatService.markMessagesAsRead(roomId, userInfo.userId, userInfo.role));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -160,7 +188,7 @@ public class ChatController {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             UserContextInfo userInfo = getUserContextFromAuth(auth);
             
-            chatService.markMessagesAsRead(roomId, userInfo.userId);
+            broadcastReadReceipt(chatService.markMessagesAsRead(roomId, userInfo.userId, userInfo.role));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -175,6 +203,13 @@ public class ChatController {
         }
     }
 
+    // Tell the other participant their messages were read
+    private void broadcastReadReceipt(ChatReadReceipt receipt) {
+        if (receipt != null) {
+            messagingTemplate.convertAndSend("/topic/chat/" + receipt.getRoomId(), receipt);
+        }
+    }
+
     // Helper method to extract user context from authentication
     private UserContextInfo getUserContextFromAuth(Authentication auth) {
         if (auth == null || !auth.isAuthenticated()) {
@@ -2,8 +2,8 @@ package com.example.KajChai.Controller;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -12,13 +12,12 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.example.KajChai.DatabaseEntity.Customer;
+import com.example.KajChai.DTO.CustomerDashboardStatsResponse;
 import com.example.KajChai.Enum.UserRole;
-import com.example.KajChai.Repository.CustomerRepository;
-import com.example.KajChai.Service.ChatService;
-import com.example.KajChai.Service.NotificationService;
 import com.example.KajChai.Service.HirePostService;
+import com.example.KajChai.Service.ReminderCounterService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -33,36 +32,56 @@ import lombok.RequiredArgsConstructor;
 }, allowCredentials = "true")
 public class CustomerDashboardController {
     
-    private final ChatService chatService;
-    private final NotificationService notificationService;
+    private final ReminderCounterService reminderCounterService;
     private final HirePostService hirePostService;
-    private final CustomerRepository customerRepository;
     
-    @GetMapping("/reminders")
-    public ResponseEntity<?> getCustomerReminders() {
+    // Post counts and total spent, aggregated by the database instead of paging through every post
+    @GetMapping("/stats")
+    public ResponseEntity<?> getCustomerDashboardStats() {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             Integer customerId = getCustomerIdFromAuth(auth);
             
-            // Get unread chat messages count
-            Long unreadChatCount = chatService.getUnreadChatMessageCount(customerId);
+            CustomerDashboardStatsResponse stats = hirePostService.getCustomerDashboardStats(customerId);
             
-            // Get unread notifications count
-            Long unreadNotificationCount = notificationService.getUnreadNotificationsCountForCustomer(customerId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("stats", stats);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to fetch dashboard stats: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+    
+    // Served from memory; answers 304 when the counts match the client's If-None-Match
+    @GetMapping("/reminders")
+    public ResponseEntity<?> getCustomerReminders(WebRequest request) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Integer customerId = getCustomerIdFromAuth(auth);
             
-            // Get pending bookings count (hire posts with status BOOKED for this customer)
-            Long pendingBookingsCount = hirePostService.getPendingBookingsCountForCustomer(customerId);
+            ReminderCounterService.Counters counters = reminderCounterService.getCustomerCounters(customerId);
+            if (request.checkNotModified(counters.getETag())) {
+                return null;
+            }
             
             Map<String, Object> reminders = new HashMap<>();
-            reminders.put("unreadChatCount", unreadChatCount);
-            reminders.put("unreadNotificationCount", unreadNotificationCount);
-            reminders.put("pendingBookingsCount", pendingBookingsCount);
+            reminders.put("unreadChatCount", counters.getUnreadChatCount());
+            reminders.put("unreadNotificationCount", counters.getUnreadNotificationCount());
+            // Hire posts with status BOOKED for this customer
+            reminders.put("pendingBookingsCount", counters.getPendingCount());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("reminders", reminders);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(counters.getETag())
+                    .body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -99,8 +118,6 @@ public class CustomerDashboardController {
             throw new RuntimeException("Access denied: Only customers can access this endpoint");
         }
         
-        Optional<Customer> customer = customerRepository.findByGmail(email);
-        return customer.map(Customer::getCustomerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found with email: " + email));
+        return reminderCounterService.resolveCustomerId(email);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.KajChai.Controller;
 
 import com.example.KajChai.DTO.*;
 import com.example.KajChai.Service.HirePostService;
+import com.example.KajChai.Service.IdempotencyService;
 import com.example.KajChai.DatabaseEntity.Customer;
 import com.example.KajChai.DatabaseEntity.Worker;
 import com.example.KajChai.DatabaseEntity.User;
@@ -32,82 +33,126 @@ import java.util.Optional;
 public class HirePostController {
     
     private final HirePostService hirePostService;
+    private final IdempotencyService idempotencyService;
     private final CustomerRepository customerRepository;
     private final WorkerRepository workerRepository;
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
     @PostMapping
-    public ResponseEntity<?> createHirePost(@Valid @RequestBody HirePostCreateRequest request) {
+    public ResponseEntity<?> createHirePost(
+            @Valid @RequestBody HirePostCreateRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return idempotencyService.execute(idempotencyKey, idempotencyScope(auth, "create-post"), request, () -> {
+            try {
+                Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
+                
+                HirePostResponse response = hirePostService.createHirePost(request, customerId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse("Failed to create hire post", e.getMessage()));
+            }
+        });
+    }
+    
+    // One page per call; without a limit the default page size applies
+    @GetMapping("/my-posts")
+    public ResponseEntity<?> getMyHirePosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
             
-            HirePostResponse response = hirePostService.createHirePost(request, customerId);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.ok(hirePostService.getHirePostsByCustomerPage(customerId, cursor, limit));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Failed to create hire post", e.getMessage()));
+                    .body(new ErrorResponse("Failed to fetch hire posts", e.getMessage()));
         }
     }
     
-    @GetMapping("/my-posts")
-    public ResponseEntity<?> getMyHirePosts() {
+    // One page per call; without a limit the default page size applies.
+    // sortByLocation pages a worker's feed by distance, the same as /nearby.
+    @GetMapping("/available")
+    public ResponseEntity<?> getAvailableHirePosts(
+            @RequestParam(required = false) String field,
+            @RequestParam(required = false, defaultValue = "false") Boolean sortByLocation,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
             
-            List<HirePostResponse> posts = hirePostService.getHirePostsByCustomer(customerId);
-            return ResponseEntity.ok(posts);
+            if (sortByLocation && hasRole(auth, UserRole.WORKER)) {
+                Integer workerId = getUserIdFromAuth(auth, "WORKER");
+                return ResponseEntity.ok(hirePostService.getAvailableHirePostsByDistance(workerId, field, cursor, limit));
+            }
+            
+            return ResponseEntity.ok(hirePostService.getAvailableHirePostsPage(field, cursor, limit));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Failed to fetch hire posts", e.getMessage()));
+                    .body(new ErrorResponse("Failed to fetch available hire posts", e.getMessage()));
         }
     }
     
-    @GetMapping("/available")
-    public ResponseEntity<?> getAvailableHirePosts(
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyHirePosts(
             @RequestParam(required = false) String field,
-            @RequestParam(required = false, defaultValue = "false") Boolean sortByLocation) {
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Integer workerId = getUserIdFromAuth(auth, "WORKER");
             
-            List<HirePostResponse> posts;
-            if (field != null && !field.trim().isEmpty()) {
-                posts = hirePostService.getAvailableHirePostsByField(field);
-            } else {
-                posts = hirePostService.getAllAvailableHirePosts();
+            HirePostPageResponse page = hirePostService.getAvailableHirePostsNearWorker(workerId, field, radiusKm, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Failed to fetch nearby hire posts", e.getMessage()));
+        }
+    }
+    
+    // Ranked full-text search; radiusKm searches around the authenticated worker's location
+    @GetMapping("/search")
+    public ResponseEntity<?> searchHirePosts(
+            @RequestParam String q,
+            @RequestParam(required = false) String field,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Integer workerId = null;
+            if (radiusKm != null && radiusKm > 0) {
+                Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+                workerId = getUserIdFromAuth(auth, "WORKER");
             }
             
-            // Apply location-based sorting if requested and user is a worker
-            if (sortByLocation && auth != null && auth.isAuthenticated()) {
-                try {
-                    // Check if user is a worker
-                    UserRole role = auth.getAuthorities().stream()
-                        .filter(authority -> authority.getAuthority().startsWith("ROLE_"))
-                        .map(authority -> {
-                            try {
-                                return UserRole.valueOf(authority.getAuthority().substring(5));
-                            } catch (IllegalArgumentException e) {
-                                return null;
-                            }
-                        })
-                        .filter(r -> r != null)
-                        .findFirst()
-                        .orElse(null);
-                        
-                    if (role == UserRole.WORKER) {
-                        Integer workerId = getUserIdFromAuth(auth, "WORKER");
-                        posts = hirePostService.sortHirePostsByLocationForWorker(posts, workerId);
-                    }
-                } catch (Exception e) {
-                    // If there's any error with location sorting, just return unsorted results
-                    System.err.println("Error sorting by location: " + e.getMessage());
-                }
-            }
+            HirePostPageResponse page = hirePostService.searchHirePosts(q, field, status, district, workerId, radiusKm, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Failed to search hire posts", e.getMessage()));
+        }
+    }
+    
+    // Personalized feed for the authenticated worker, best match first
+    @GetMapping("/recommended")
+    public ResponseEntity<?> getRecommendedHirePosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            Integer workerId = getUserIdFromAuth(auth, "WORKER");
             
-            return ResponseEntity.ok(posts);
+            HirePostPageResponse page = hirePostService.getRecommendedHirePosts(workerId, cursor, limit);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Failed to fetch available hire posts", e.getMessage()));
+                    .body(new ErrorResponse("Failed to fetch recommended hire posts", e.getMessage()));
         }
     }
     
@@ -153,26 +198,33 @@ public class HirePostController {
     }
     
     @PostMapping("/{postId}/apply")
-    public ResponseEntity<?> applyToHirePost(@PathVariable Integer postId) {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Integer workerId = getUserIdFromAuth(auth, "WORKER");
-            
-            hirePostService.applyToHirePost(postId, workerId);
-            return ResponseEntity.ok(new SuccessResponse("Successfully applied to hire post"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Failed to apply to hire post", e.getMessage()));
-        }
+    public ResponseEntity<?> applyToHirePost(
+            @PathVariable Integer postId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return idempotencyService.execute(idempotencyKey, idempotencyScope(auth, "apply"), List.of(postId), () -> {
+            try {
+                Integer workerId = getUserIdFromAuth(auth, "WORKER");
+                
+                hirePostService.applyToHirePost(postId, workerId);
+                return ResponseEntity.ok(new SuccessResponse("Successfully applied to hire post"));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse("Failed to apply to hire post", e.getMessage()));
+            }
+        });
     }
     
+    // sort=rank lists the best-ranked applicants first; by default applicants are in order of application
     @GetMapping("/{postId}/applications")
-    public ResponseEntity<?> getApplicationsForPost(@PathVariable Integer postId) {
+    public ResponseEntity<?> getApplicationsForPost(
+            @PathVariable Integer postId,
+            @RequestParam(required = false) String sort) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
             
-            List<WorkerApplicationResponse> applications = hirePostService.getApplicationsForPost(postId, customerId);
+            List<WorkerApplicationResponse> applications = hirePostService.getApplicationsForPost(postId, customerId, sort);
             return ResponseEntity.ok(applications);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -183,17 +235,21 @@ public class HirePostController {
     @PostMapping("/{postId}/select-worker/{workerId}")
     public ResponseEntity<?> selectWorkerForPost(
             @PathVariable Integer postId,
-            @PathVariable Integer workerId) {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
-            
-            hirePostService.selectWorkerForPost(postId, workerId, customerId);
-            return ResponseEntity.ok(new SuccessResponse("Worker selected successfully"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ErrorResponse("Failed to select worker", e.getMessage()));
-        }
+            @PathVariable Integer workerId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return idempotencyService.execute(idempotencyKey, idempotencyScope(auth, "select-worker"),
+                List.of(postId, workerId), () -> {
+            try {
+                Integer customerId = getUserIdFromAuth(auth, "CUSTOMER");
+                
+                hirePostService.selectWorkerForPost(postId, workerId, customerId);
+                return ResponseEntity.ok(new SuccessResponse("Worker selected successfully"));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new ErrorResponse("Failed to select worker", e.getMessage()));
+            }
+        });
     }
     
     @PostMapping("/{postId}/complete")
@@ -212,6 +268,17 @@ public class HirePostController {
         }
     }
     
+    // Idempotency keys are only matched for the same user and operation; the parameters are checked per request
+    private String idempotencyScope(Authentication auth, String operation) {
+        String user = auth != null && auth.getName() != null ? auth.getName() : "anonymous";
+        return user + ":" + operation;
+    }
+    
+    private boolean hasRole(Authentication auth, UserRole role) {
+        return auth != null && auth.isAuthenticated() && auth.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role.name()));
+    }
+    
     private Integer getUserIdFromAuth(Authentication auth, String expectedRole) {
         if (auth == null || !auth.isAuthenticated()) {
             throw new RuntimeException("User not authenticated");
@@ -1,5 +1,6 @@
 package com.example.KajChai.Controller;
 
+import com.example.KajChai.DTO.DistanceMatrixRequest;
 import com.example.KajChai.DTO.LocationRequest;
 import com.example.KajChai.DTO.LocationResponse;
 import com.example.KajChai.Service.LocationService;
@@ -108,4 +109,27 @@ public class LocationController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/distance-matrix")
+    public ResponseEntity<Map<String, Object>> calculateDistanceMatrix(@RequestBody DistanceMatrixRequest request) {
+        try {
+            double[][] distances = locationService.calculateDistanceMatrix(
+                request.getOrigins(), request.getDestinations()
+            );
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("distances", distances);
+            response.put("unit", "kilometers");
+            response.put("message", "Distances calculated successfully");
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to calculate distances: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
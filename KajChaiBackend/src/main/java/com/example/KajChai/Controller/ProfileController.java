@@ -337,16 +337,14 @@ public class ProfileController {
             
             // Create pageable
             Pageable pageable = PageRequest.of(page, size);
-            Page<WorkerProfileResponse> workersPage = profileService.getAllWorkersPaginated(field, pageable);
+            Page<WorkerProfileResponse> workersPage = null;
             
-            List<WorkerProfileResponse> workers = workersPage.getContent();
-            
-            // Apply location-based sorting if requested and user is a customer
+            // Use the location index if requested and user is a customer, so ordering holds across pages
             if (sortByLocation && authentication != null && authentication.isAuthenticated()) {
                 try {
                     User user = (User) authentication.getPrincipal();
                     if (user.getRole().name().equals("CUSTOMER")) {
-                        workers = profileService.sortWorkersByLocationForCustomer(workers, user.getEmail());
+                        workersPage = profileService.getWorkersNearCustomerPaginated(field, user.getEmail(), pageable);
                     }
                 } catch (Exception e) {
                     // If there's any error with location sorting, just return unsorted results
@@ -354,6 +352,12 @@ public class ProfileController {
                 }
             }
             
+            if (workersPage == null) {
+                workersPage = profileService.getAllWorkersPaginated(field, pageable);
+            }
+            
+            List<WorkerProfileResponse> workers = workersPage.getContent();
+            
             // Create paginated response
             Map<String, Object> response = new HashMap<>();
             response.put("workers", workers);
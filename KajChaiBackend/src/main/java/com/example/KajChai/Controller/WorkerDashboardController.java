@@ -2,18 +2,17 @@ package com.example.KajChai.Controller;
 
 import com.example.KajChai.DTO.*;
 import com.example.KajChai.DatabaseEntity.Customer;
-import com.example.KajChai.DatabaseEntity.Worker;
 import com.example.KajChai.Enum.UserRole;
 import com.example.KajChai.Repository.CustomerRepository;
-import com.example.KajChai.Repository.WorkerRepository;
 import com.example.KajChai.Service.WorkerDashboardService;
-import com.example.KajChai.Service.ChatService;
-import com.example.KajChai.Service.NotificationService;
+import com.example.KajChai.Service.ReminderCounterService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,9 +32,7 @@ public class WorkerDashboardController {
     
     private final WorkerDashboardService workerDashboardService;
     private final CustomerRepository customerRepository;
-    private final WorkerRepository workerRepository;
-    private final ChatService chatService;
-    private final NotificationService notificationService;
+    private final ReminderCounterService reminderCounterService;
     
     @GetMapping("/stats")
     public ResponseEntity<?> getWorkerDashboardStats() {
@@ -93,31 +90,32 @@ public class WorkerDashboardController {
         }
     }
     
+    // Served from memory; answers 304 when the counts match the client's If-None-Match
     @GetMapping("/reminders")
-    public ResponseEntity<?> getWorkerReminders() {
+    public ResponseEntity<?> getWorkerReminders(WebRequest request) {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             Integer workerId = getUserIdFromAuth(auth, "WORKER");
             
-            // Get unread chat messages count
-            Long unreadChatCount = chatService.getUnreadChatMessageCountForWorker(workerId);
-            
-            // Get unread notifications count
-            Long unreadNotificationCount = notificationService.getUnreadNotificationsCountForWorker(workerId);
-            
-            // Get pending booked works count (jobs with status BOOKED for this worker)
-            Long pendingBookedWorksCount = workerDashboardService.getActiveJobsCount(workerId);
+            ReminderCounterService.Counters counters = reminderCounterService.getWorkerCounters(workerId);
+            if (request.checkNotModified(counters.getETag())) {
+                return null;
+            }
             
             Map<String, Object> reminders = new HashMap<>();
-            reminders.put("unreadChatCount", unreadChatCount);
-            reminders.put("unreadNotificationCount", unreadNotificationCount);
-            reminders.put("pendingBookedWorksCount", pendingBookedWorksCount);
+            reminders.put("unreadChatCount", counters.getUnreadChatCount());
+            reminders.put("unreadNotificationCount", counters.getUnreadNotificationCount());
+            // Jobs with status BOOKED for this worker
+            reminders.put("pendingBookedWorksCount", counters.getPendingCount());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("reminders", reminders);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .eTag(counters.getETag())
+                    .body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -165,9 +163,8 @@ public class WorkerDashboardController {
                 return customer.map(Customer::getCustomerId)
                         .orElseThrow(() -> new RuntimeException("Customer not found with email: " + email));
             } else if (role == UserRole.WORKER) {
-                Optional<Worker> worker = workerRepository.findByGmail(email);
-                return worker.map(Worker::getWorkerId)
-                        .orElseThrow(() -> new RuntimeException("Worker not found with email: " + email));
+                // Cached: the dashboard badges are polled constantly
+                return reminderCounterService.resolveWorkerId(email);
             } else {
                 throw new RuntimeException("Invalid user role: " + role);
             }
@@ -0,0 +1,19 @@
+package com.example.KajChai.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessagePageResponse {
+    private List<ChatMessageResponse> messages; // Oldest first
+    private boolean hasMore; // More messages beyond this page in the direction requested
+    private Long oldestMessageId; // Pass as "before" to scroll back
+    private Long newestMessageId; // Pass as "after" to catch up
+}
@@ -0,0 +1,27 @@
+package com.example.KajChai.DTO;
+
+import com.example.KajChai.Enum.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Broadcast on /topic/chat/{roomId} when a participant reads the room.
+ * Every message up to lastReadMessageId sent by the other participant is now read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReadReceipt {
+    @Builder.Default
+    private String type = "READ_RECEIPT"; // Tells receipts apart from chat messages on the same topic
+    private Long roomId;
+    private Integer readerId;
+    private UserRole readerRole;
+    private Long lastReadMessageId;
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,18 @@
+package com.example.KajChai.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatRoomPageResponse {
+    private List<ChatRoomResponse> chatRooms;
+    private String nextCursor; // Opaque, pass back as "cursor" to get the next page
+    private boolean hasNext;
+}
@@ -0,0 +1,17 @@
+package com.example.KajChai.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerDashboardStatsResponse {
+    private Long activeHirePosts;
+    private Long expiredHirePosts;
+    private Long completedJobs;
+    private Double totalSpent;
+}
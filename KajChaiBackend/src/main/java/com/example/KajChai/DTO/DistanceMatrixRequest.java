@@ -0,0 +1,17 @@
+package com.example.KajChai.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistanceMatrixRequest {
+    private List<LocationRequest> origins;
+    private List<LocationRequest> destinations;
+}
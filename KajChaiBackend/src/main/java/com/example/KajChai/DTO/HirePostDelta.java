@@ -0,0 +1,37 @@
+package com.example.KajChai.DTO;
+
+import com.example.KajChai.Enum.HirePostStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A change to the hire post feed as broadcast to workers. The topics are public, so this only
+ * carries what a feed card needs to show the change; clients fetch details over authenticated REST.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HirePostDelta {
+    
+    public enum Type { CREATED, UPDATED, REMOVED }
+    
+    private Type type;
+    private Integer postId;
+    private String field;
+    private String district;
+    private HirePostStatus status;
+    private LocalDate deadline;
+    private String description; // Shortened to a preview
+    
+    public static String preview(String description) {
+        if (description == null || description.length() <= 50) {
+            return description;
+        }
+        return description.substring(0, 50) + "...";
+    }
+}
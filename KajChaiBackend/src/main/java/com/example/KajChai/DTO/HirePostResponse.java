@@ -38,4 +38,6 @@ public class HirePostResponse {
     
     // Additional fields for listing view
     private Integer applicationsCount;
+    private Double distanceKm; // Only set for nearby results
+    private Double matchScore; // Only set for recommended results
 }
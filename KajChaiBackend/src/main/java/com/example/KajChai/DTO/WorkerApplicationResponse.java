@@ -32,4 +32,7 @@ public class WorkerApplicationResponse {
     private Integer totalReviews;
     private Double averageRating;
     private Boolean isSelected;
+    private Integer jobsCompleted;
+    private Double rankScore; // Higher is better
+    private Integer rank; // 1 for the best-ranked applicant of the post
 }
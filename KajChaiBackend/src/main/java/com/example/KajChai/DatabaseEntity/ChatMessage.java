@@ -34,6 +34,7 @@ public class ChatMessage {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // Superseded by the room's read watermarks; only kept because existing rows carry it
     @Builder.Default
     @Column(nullable = false)
     private Boolean isRead = false;
@@ -36,6 +36,23 @@ public class ChatRoom {
     @Column(name = "last_activity")
     private LocalDateTime lastActivity;
 
+    // Read state lives on the room: each participant has read every message up to their watermark.
+    // These columns are only written with SQL (ChatMessageWriter and ChatRoomRepository), never through the entity.
+    @Column(name = "last_message_id", insertable = false, updatable = false)
+    private Long lastMessageId;
+
+    @Column(name = "customer_last_read_id", insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long customerLastReadId;
+
+    @Column(name = "worker_last_read_id", insertable = false, updatable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long workerLastReadId;
+
+    @Column(name = "customer_unread_count", insertable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private Integer customerUnreadCount;
+
+    @Column(name = "worker_unread_count", insertable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0 NOT NULL")
+    private Integer workerUnreadCount;
+
     @PrePersist
     @PreUpdate
     protected void updateLastActivity() {
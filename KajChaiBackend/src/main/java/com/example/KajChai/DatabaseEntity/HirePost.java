@@ -50,4 +50,14 @@ public class HirePost {
     @CreationTimestamp
     @Column(name = "post_time", nullable = false, updatable = false)
     private LocalDateTime postTime;
+
+    // Maintained by atomic increments in the database, so entity saves never overwrite it
+    @Column(name = "applications_count", nullable = false, updatable = false, columnDefinition = "INTEGER DEFAULT 0")
+    @Builder.Default
+    private Integer applicationsCount = 0;
+
+    // Optimistic lock so concurrent status changes (e.g. two selections) cannot both win
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
 }
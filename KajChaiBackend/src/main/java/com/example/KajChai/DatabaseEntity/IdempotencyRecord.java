@@ -0,0 +1,38 @@
+package com.example.KajChai.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a POST made with an Idempotency-Key header, keyed by user, operation and client key.
+ * statusCode stays null while the first request is still running.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "record_key", length = 400)
+    private String recordKey;
+
+    // SHA-256 of the request parameters, hex encoded
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    @Column(name = "status_code")
+    private Integer statusCode;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
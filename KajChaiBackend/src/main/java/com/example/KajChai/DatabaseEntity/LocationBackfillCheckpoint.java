@@ -0,0 +1,53 @@
+package com.example.KajChai.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the location backfill job, saved after every chunk so a run can resume
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "location_backfill_checkpoint")
+public class LocationBackfillCheckpoint {
+    @Id
+    @Column(name = "job_name", length = 64)
+    private String jobName;
+
+    @Builder.Default
+    @Column(name = "last_customer_id", nullable = false)
+    private Integer lastCustomerId = 0;
+
+    @Builder.Default
+    @Column(name = "last_worker_id", nullable = false)
+    private Integer lastWorkerId = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long processed = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long updated = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long failed = 0L;
+
+    @Column(length = 32)
+    private String status; // RUNNING, STOPPED, COMPLETED, FAILED
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,32 @@
+package com.example.KajChai.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Message text shared by many notification rows, e.g. the one "not selected" message sent
+ * to every applicant of a hire post. Rows that reference a template leave their own message null.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "notification_template")
+public class NotificationTemplate {
+    @Id
+    @Column(name = "template_id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer templateId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
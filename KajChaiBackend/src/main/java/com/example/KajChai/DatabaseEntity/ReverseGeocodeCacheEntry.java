@@ -0,0 +1,39 @@
+package com.example.KajChai.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reverse geocoding result shared by every coordinate that falls in the same grid cell
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "reverse_geocode_cache")
+public class ReverseGeocodeCacheEntry {
+    // "<gridMeters>:<latCell>:<lonCell>"
+    @Id
+    @Column(name = "cell_key", length = 64)
+    private String cellKey;
+
+    private String city;
+
+    private String upazila;
+
+    private String district;
+
+    private String division;
+
+    @Column(name = "full_address", columnDefinition = "TEXT")
+    private String fullAddress;
+
+    @Column(name = "resolved_at", nullable = false)
+    private LocalDateTime resolvedAt;
+}
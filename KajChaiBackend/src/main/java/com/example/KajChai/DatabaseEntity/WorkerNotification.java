@@ -32,9 +32,14 @@ public class WorkerNotification {
     @Column(name = "notification_id")@GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer notificationId;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // Null when the text comes from the shared template
+    @Column(columnDefinition = "TEXT")
     private String message;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id")
+    private NotificationTemplate template;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private NotificationStatus status;
@@ -46,4 +51,9 @@ public class WorkerNotification {
     @CreationTimestamp
     @Column(name = "notification_time", nullable = false, updatable = false)
     private LocalDateTime notificationTime;
+
+    // The text shown to the worker, whether stored on the row or shared through a template
+    public String getText() {
+        return template != null ? template.getMessage() : message;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.KajChai.DatabaseEntity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals for a worker's dashboard, one row per worker.
+ * Updated by atomic increments when a worker is booked, a job is completed or a review is left;
+ * WorkerDashboardService.rebuildWorkerStats recomputes every row from bookings and reviews.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+@Entity
+@Table(name = "worker_stats")
+public class WorkerStats {
+    @Id
+    @Column(name = "worker_id")
+    private Integer workerId;
+
+    @Column(name = "jobs_completed", nullable = false)
+    private Long jobsCompleted;
+
+    @Column(name = "active_jobs", nullable = false)
+    private Long activeJobs;
+
+    @Column(name = "total_earned", nullable = false)
+    private Double totalEarned;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -3,5 +3,6 @@ package com.example.KajChai.Enum;
 public enum HirePostStatus {
     AVAILABLE,
     BOOKED,
-    COMPLETED
+    COMPLETED,
+    EXPIRED
 }
@@ -4,10 +4,12 @@ import com.example.KajChai.DatabaseEntity.Booking;
 import com.example.KajChai.DatabaseEntity.HirePost;
 import com.example.KajChai.DatabaseEntity.Worker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +30,13 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
     @Query("SELECT b FROM Booking b WHERE b.worker.workerId = :workerId")
     List<Booking> findByWorkerId(@Param("workerId") Integer workerId);
     
+    // Book a post unless it already has a booking; returns 0 if it does
+    @Modifying
+    @Query(value = "INSERT INTO booking (post_id, worker_id, booking_time) " +
+                   "VALUES (:postId, :workerId, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Integer postId, @Param("workerId") Integer workerId,
+                       @Param("now") LocalDateTime now);
+    
     // Check if a hire post is already booked
     boolean existsByHirePost(HirePost hirePost);
     
@@ -1,6 +1,7 @@
 package com.example.KajChai.Repository;
 
 import com.example.KajChai.DatabaseEntity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,22 +13,14 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     
     List<ChatMessage> findByChatRoom_RoomIdOrderBySentAtAsc(Long roomId);
     
-    @Query("SELECT cm FROM ChatMessage cm WHERE cm.chatRoom.roomId = :roomId AND cm.senderId != :userId AND cm.isRead = false")
-    List<ChatMessage> findUnreadMessagesByRoomAndReceiver(Long roomId, Integer userId);
+    // Page of a room's messages older than beforeId, newest first
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.chatRoom.roomId = :roomId AND cm.messageId < :beforeId ORDER BY cm.messageId DESC")
+    List<ChatMessage> findPageBefore(Long roomId, Long beforeId, Pageable pageable);
     
-    @Query("SELECT COUNT(cm) FROM ChatMessage cm WHERE cm.chatRoom.roomId = :roomId AND cm.senderId != :userId AND cm.isRead = false")
-    Long countUnreadMessagesByRoomAndReceiver(Long roomId, Integer userId);
+    // Page of a room's messages newer than afterId, oldest first
+    @Query("SELECT cm FROM ChatMessage cm WHERE cm.chatRoom.roomId = :roomId AND cm.messageId > :afterId ORDER BY cm.messageId ASC")
+    List<ChatMessage> findPageAfter(Long roomId, Long afterId, Pageable pageable);
     
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.chatRoom.roomId = :roomId ORDER BY cm.sentAt DESC LIMIT 1")
     ChatMessage findLastMessageByRoomId(Long roomId);
-    
-    // Count all unread messages for a customer across all their chat rooms
-    @Query("SELECT COUNT(cm) FROM ChatMessage cm JOIN cm.chatRoom cr WHERE " +
-           "cr.customerId = :customerId AND cm.senderId != :customerId AND cm.isRead = false")
-    Long countUnreadMessagesByCustomerId(Integer customerId);
-    
-    // Count all unread messages for a worker across all their chat rooms
-    @Query("SELECT COUNT(cm) FROM ChatMessage cm JOIN cm.chatRoom cr WHERE " +
-           "cr.workerId = :workerId AND cm.senderId != :workerId AND cm.isRead = false")
-    Long countUnreadMessagesByWorkerId(Integer workerId);
 }
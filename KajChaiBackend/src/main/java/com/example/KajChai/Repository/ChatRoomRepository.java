@@ -3,8 +3,10 @@ package com.example.KajChai.Repository;
 import com.example.KajChai.DatabaseEntity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +21,51 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     
     @Query("SELECT cr FROM ChatRoom cr WHERE cr.customerId = :userId OR cr.workerId = :userId ORDER BY cr.lastActivity DESC")
     List<ChatRoom> findByUserIdOrderByLastActivityDesc(Integer userId);
+    
+    // Inbox row: room_id, room_name, customer_id, customer_name, worker_id, worker_name, last_message,
+    // activity, unread_count, other_photo. The latest message comes from a lateral lookup on (room_id, message_id).
+    String INBOX_SELECT = "SELECT cr.room_id, cr.room_name, cr.customer_id, c.customer_name, cr.worker_id, w.name AS worker_name, " +
+            "lm.content AS last_message, COALESCE(cr.last_activity, cr.created_at) AS activity, ";
+    String INBOX_FROM = "FROM chat_rooms cr " +
+            "LEFT JOIN customer c ON c.customer_id = cr.customer_id " +
+            "LEFT JOIN worker w ON w.worker_id = cr.worker_id " +
+            "LEFT JOIN LATERAL (SELECT m.content FROM chat_messages m WHERE m.room_id = cr.room_id " +
+            "ORDER BY m.message_id DESC LIMIT 1) lm ON true ";
+    String INBOX_PAGE = "AND (COALESCE(cr.last_activity, cr.created_at), cr.room_id) < (:afterActivity, :afterRoomId) " +
+            "ORDER BY COALESCE(cr.last_activity, cr.created_at) DESC, cr.room_id DESC " +
+            "LIMIT :limit";
+    
+    // A customer's inbox, most recently active first
+    @Query(value = INBOX_SELECT + "cr.customer_unread_count AS unread_count, w.photo AS other_photo " + INBOX_FROM +
+                   "WHERE cr.customer_id = :userId " + INBOX_PAGE, nativeQuery = true)
+    List<Object[]> findCustomerInbox(@Param("userId") Integer customerId,
+                                     @Param("afterActivity") LocalDateTime afterActivity,
+                                     @Param("afterRoomId") Long afterRoomId,
+                                     @Param("limit") int limit);
+    
+    // A worker's inbox, most recently active first
+    @Query(value = INBOX_SELECT + "cr.worker_unread_count AS unread_count, c.photo AS other_photo " + INBOX_FROM +
+                   "WHERE cr.worker_id = :userId " + INBOX_PAGE, nativeQuery = true)
+    List<Object[]> findWorkerInbox(@Param("userId") Integer workerId,
+                                   @Param("afterActivity") LocalDateTime afterActivity,
+                                   @Param("afterRoomId") Long afterRoomId,
+                                   @Param("limit") int limit);
+    
+    // Moves the customer's watermark to the room's last message and returns it; null when there was nothing unread
+    @Query(value = "UPDATE chat_rooms SET customer_last_read_id = last_message_id, customer_unread_count = 0 " +
+                   "WHERE room_id = :roomId AND customer_id = :customerId " +
+                   "AND last_message_id > customer_last_read_id RETURNING customer_last_read_id", nativeQuery = true)
+    Long markReadByCustomer(@Param("roomId") Long roomId, @Param("customerId") Integer customerId);
+    
+    // Moves the worker's watermark to the room's last message and returns it; null when there was nothing unread
+    @Query(value = "UPDATE chat_rooms SET worker_last_read_id = last_message_id, worker_unread_count = 0 " +
+                   "WHERE room_id = :roomId AND worker_id = :workerId " +
+                   "AND last_message_id > worker_last_read_id RETURNING worker_last_read_id", nativeQuery = true)
+    Long markReadByWorker(@Param("roomId") Long roomId, @Param("workerId") Integer workerId);
+    
+    @Query(value = "SELECT COALESCE(SUM(customer_unread_count), 0) FROM chat_rooms WHERE customer_id = :customerId", nativeQuery = true)
+    Long sumCustomerUnreadCount(@Param("customerId") Integer customerId);
+    
+    @Query(value = "SELECT COALESCE(SUM(worker_unread_count), 0) FROM chat_rooms WHERE worker_id = :workerId", nativeQuery = true)
+    Long sumWorkerUnreadCount(@Param("workerId") Integer workerId);
 }
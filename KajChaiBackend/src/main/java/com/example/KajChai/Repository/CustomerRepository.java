@@ -1,8 +1,12 @@
 package com.example.KajChai.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.KajChai.DatabaseEntity.Customer;
@@ -11,4 +15,13 @@ import com.example.KajChai.DatabaseEntity.Customer;
 public interface CustomerRepository extends JpaRepository<Customer, Integer> {
     Optional<Customer> findByGmail(String gmail);
     boolean existsByGmail(String gmail);
+    
+    // Next chunk of customers without coordinates, keyed by id
+    @Query("SELECT c FROM Customer c WHERE (c.latitude IS NULL OR c.longitude IS NULL) " +
+           "AND c.customerId > :afterId ORDER BY c.customerId")
+    List<Customer> findWithoutLocationAfter(@Param("afterId") Integer afterId, Pageable pageable);
+    
+    // Number of customers without coordinates
+    @Query("SELECT COUNT(c) FROM Customer c WHERE c.latitude IS NULL OR c.longitude IS NULL")
+    long countWithoutLocation();
 }
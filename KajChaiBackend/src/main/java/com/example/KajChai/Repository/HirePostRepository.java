@@ -3,11 +3,15 @@ package com.example.KajChai.Repository;
 import com.example.KajChai.DatabaseEntity.Customer;
 import com.example.KajChai.DatabaseEntity.HirePost;
 import com.example.KajChai.Enum.HirePostStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -29,13 +33,149 @@ public interface HirePostRepository extends JpaRepository<HirePost, Integer> {
     List<HirePost> findByField(String field);
     
     // Find available posts by field (for workers to browse)
-    @Query("SELECT hp FROM HirePost hp WHERE hp.field = :field AND hp.status = 'AVAILABLE' ORDER BY hp.postTime DESC")
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.field = :field AND hp.status = 'AVAILABLE' ORDER BY hp.postTime DESC")
     List<HirePost> findAvailablePostsByField(@Param("field") String field);
     
     // Find all available posts ordered by post time
-    @Query("SELECT hp FROM HirePost hp WHERE hp.status = 'AVAILABLE' ORDER BY hp.postTime DESC")
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.status = 'AVAILABLE' ORDER BY hp.postTime DESC")
     List<HirePost> findAllAvailablePosts();
     
+    // Keyset pages of available posts, newest first, strictly after (afterTime, afterPostId)
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.status = 'AVAILABLE' " +
+           "AND (hp.postTime < :afterTime OR (hp.postTime = :afterTime AND hp.postId < :afterPostId)) " +
+           "ORDER BY hp.postTime DESC, hp.postId DESC")
+    List<HirePost> findAvailablePostsPage(@Param("afterTime") LocalDateTime afterTime,
+                                          @Param("afterPostId") Integer afterPostId,
+                                          Pageable pageable);
+    
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.field = :field AND hp.status = 'AVAILABLE' " +
+           "AND (hp.postTime < :afterTime OR (hp.postTime = :afterTime AND hp.postId < :afterPostId)) " +
+           "ORDER BY hp.postTime DESC, hp.postId DESC")
+    List<HirePost> findAvailablePostsByFieldPage(@Param("field") String field,
+                                                 @Param("afterTime") LocalDateTime afterTime,
+                                                 @Param("afterPostId") Integer afterPostId,
+                                                 Pageable pageable);
+    
+    // Keyset pages of one customer's posts, newest first
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.customer.customerId = :customerId " +
+           "AND (hp.postTime < :afterTime OR (hp.postTime = :afterTime AND hp.postId < :afterPostId)) " +
+           "ORDER BY hp.postTime DESC, hp.postId DESC")
+    List<HirePost> findByCustomerPage(@Param("customerId") Integer customerId,
+                                      @Param("afterTime") LocalDateTime afterTime,
+                                      @Param("afterPostId") Integer afterPostId,
+                                      Pageable pageable);
+    
+    // Available posts whose customer lies within a radius of a point, ordered by (distance, post id).
+    // The bounding box lets the planner use the customer coordinate index before the exact distance is computed.
+    @Query(value = "SELECT d.post_id, d.distance FROM (" +
+           "SELECT hp.post_id, 6371 * 2 * ASIN(SQRT(" +
+           "POWER(SIN(RADIANS(c.latitude - :lat) / 2), 2) + " +
+           "COS(RADIANS(:lat)) * COS(RADIANS(c.latitude)) * POWER(SIN(RADIANS(c.longitude - :lon) / 2), 2)" +
+           ")) AS distance " +
+           "FROM hire_post hp JOIN customer c ON c.customer_id = hp.customer_id " +
+           "WHERE hp.status = 'AVAILABLE' " +
+           "AND (:field = '' OR hp.field = :field) " +
+           "AND c.latitude BETWEEN :minLat AND :maxLat " +
+           "AND c.longitude BETWEEN :minLon AND :maxLon" +
+           ") d " +
+           "WHERE d.distance <= :radiusKm " +
+           "AND (d.distance, d.post_id) > (:afterDistance, :afterPostId) " +
+           "ORDER BY d.distance, d.post_id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Object[]> findAvailablePostIdsNear(@Param("lat") double latitude,
+                                            @Param("lon") double longitude,
+                                            @Param("field") String field,
+                                            @Param("minLat") double minLatitude,
+                                            @Param("maxLat") double maxLatitude,
+                                            @Param("minLon") double minLongitude,
+                                            @Param("maxLon") double maxLongitude,
+                                            @Param("radiusKm") double radiusKm,
+                                            @Param("afterDistance") double afterDistance,
+                                            @Param("afterPostId") int afterPostId,
+                                            @Param("limit") int limit);
+    
+    // Every available post ordered by (distance, post id); posts whose customer has no coordinates sort
+    // last with an infinite distance. No radius, so the whole field is scanned and sorted for each page.
+    @Query(value = "SELECT d.post_id, d.distance FROM (" +
+           "SELECT hp.post_id, COALESCE(6371 * 2 * ASIN(SQRT(" +
+           "POWER(SIN(RADIANS(c.latitude - :lat) / 2), 2) + " +
+           "COS(RADIANS(:lat)) * COS(RADIANS(c.latitude)) * POWER(SIN(RADIANS(c.longitude - :lon) / 2), 2)" +
+           ")), 'Infinity'::float8) AS distance " +
+           "FROM hire_post hp JOIN customer c ON c.customer_id = hp.customer_id " +
+           "WHERE hp.status = 'AVAILABLE' " +
+           "AND (:field = '' OR hp.field = :field)" +
+           ") d " +
+           "WHERE (d.distance, d.post_id) > (:afterDistance, :afterPostId) " +
+           "ORDER BY d.distance, d.post_id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Object[]> findAvailablePostIdsByDistance(@Param("lat") double latitude,
+                                                  @Param("lon") double longitude,
+                                                  @Param("field") String field,
+                                                  @Param("afterDistance") double afterDistance,
+                                                  @Param("afterPostId") int afterPostId,
+                                                  @Param("limit") int limit);
+    
+    // One row: active (available or booked), expired and completed post counts, and the total paid for completed posts
+    @Query(value = "SELECT COUNT(*) FILTER (WHERE status IN ('AVAILABLE', 'BOOKED')), " +
+           "COUNT(*) FILTER (WHERE status = 'EXPIRED'), " +
+           "COUNT(*) FILTER (WHERE status = 'COMPLETED'), " +
+           "COALESCE(SUM(payment) FILTER (WHERE status = 'COMPLETED'), 0) " +
+           "FROM hire_post WHERE customer_id = :customerId", nativeQuery = true)
+    List<Object[]> findDashboardStatsByCustomer(@Param("customerId") Integer customerId);
+    
+    // Full-text search over description and field, ordered by (rank, post id) descending.
+    // The GIN index on search_vector serves the match; the radius filter is skipped when radiusKm <= 0.
+    @Query(value = "SELECT r.post_id, r.rank FROM (" +
+           "SELECT hp.post_id, ts_rank(hp.search_vector, q.query) AS rank, " +
+           "CASE WHEN :radiusKm > 0 THEN 6371 * 2 * ASIN(SQRT(" +
+           "POWER(SIN(RADIANS(c.latitude - :lat) / 2), 2) + " +
+           "COS(RADIANS(:lat)) * COS(RADIANS(c.latitude)) * POWER(SIN(RADIANS(c.longitude - :lon) / 2), 2)" +
+           ")) ELSE 0 END AS distance " +
+           "FROM hire_post hp JOIN customer c ON c.customer_id = hp.customer_id, " +
+           "to_tsquery('simple', :query) AS q(query) " +
+           "WHERE hp.search_vector @@ q.query " +
+           "AND hp.status = :status " +
+           "AND (:field = '' OR hp.field = :field) " +
+           "AND (:district = '' OR LOWER(c.district) = LOWER(:district)) " +
+           "AND (:radiusKm <= 0 OR (c.latitude BETWEEN :minLat AND :maxLat AND c.longitude BETWEEN :minLon AND :maxLon))" +
+           ") r " +
+           "WHERE (:radiusKm <= 0 OR r.distance <= :radiusKm) " +
+           "AND (r.rank, r.post_id) < (:afterRank, :afterPostId) " +
+           "ORDER BY r.rank DESC, r.post_id DESC " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Object[]> searchPostIds(@Param("query") String query,
+                                 @Param("status") String status,
+                                 @Param("field") String field,
+                                 @Param("district") String district,
+                                 @Param("lat") double latitude,
+                                 @Param("lon") double longitude,
+                                 @Param("minLat") double minLatitude,
+                                 @Param("maxLat") double maxLatitude,
+                                 @Param("minLon") double minLongitude,
+                                 @Param("maxLon") double maxLongitude,
+                                 @Param("radiusKm") double radiusKm,
+                                 @Param("afterRank") double afterRank,
+                                 @Param("afterPostId") int afterPostId,
+                                 @Param("limit") int limit);
+    
+    // Fetch posts together with their customers
+    @Query("SELECT hp FROM HirePost hp JOIN FETCH hp.customer WHERE hp.postId IN :postIds")
+    List<HirePost> findAllWithCustomerByPostIdIn(@Param("postIds") List<Integer> postIds);
+    
+    // Atomically bump the denormalized application counter
+    @Modifying
+    @Query("UPDATE HirePost hp SET hp.applicationsCount = hp.applicationsCount + 1 WHERE hp.postId = :postId")
+    int incrementApplicationsCount(@Param("postId") Integer postId);
+    
+    // Reset every drifted application counter to the real number of applications, returns rows fixed
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE hire_post hp SET applications_count = c.total FROM (" +
+           "SELECT p.post_id, COUNT(pam.application_id) AS total FROM hire_post p " +
+           "LEFT JOIN post_application_mapping pam ON pam.post_id = p.post_id GROUP BY p.post_id" +
+           ") c WHERE hp.post_id = c.post_id AND hp.applications_count IS DISTINCT FROM c.total", nativeQuery = true)
+    int reconcileApplicationsCounts();
+    
     // Count hire posts by customer and status
     Long countByCustomerCustomerIdAndStatus(Integer customerId, HirePostStatus status);
 }
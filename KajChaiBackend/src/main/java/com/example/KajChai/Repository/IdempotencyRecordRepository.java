@@ -0,0 +1,43 @@
+package com.example.KajChai.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.KajChai.DatabaseEntity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Claim a key; returns 0 when another request already holds it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_record (record_key, request_hash, created_at) VALUES (:recordKey, :requestHash, :now) " +
+                   "ON CONFLICT (record_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash, @Param("now") LocalDateTime now);
+    
+    // Take over a claim whose request never finished
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.createdAt = :now " +
+           "WHERE r.recordKey = :recordKey AND r.statusCode IS NULL AND r.createdAt < :staleBefore")
+    int claimAbandoned(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash,
+                       @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody " +
+           "WHERE r.recordKey = :recordKey")
+    int complete(@Param("recordKey") String recordKey, @Param("statusCode") Integer statusCode,
+                 @Param("responseBody") String responseBody);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
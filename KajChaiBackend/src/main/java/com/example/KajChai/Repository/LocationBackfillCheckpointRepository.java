@@ -0,0 +1,10 @@
+package com.example.KajChai.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.KajChai.DatabaseEntity.LocationBackfillCheckpoint;
+
+@Repository
+public interface LocationBackfillCheckpointRepository extends JpaRepository<LocationBackfillCheckpoint, String> {
+}
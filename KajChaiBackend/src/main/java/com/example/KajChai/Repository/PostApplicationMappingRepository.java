@@ -4,10 +4,12 @@ import com.example.KajChai.DatabaseEntity.HirePost;
 import com.example.KajChai.DatabaseEntity.PostApplicationMapping;
 import com.example.KajChai.DatabaseEntity.Worker;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +28,27 @@ public interface PostApplicationMappingRepository extends JpaRepository<PostAppl
     // Check if a worker has already applied to a specific post (returns boolean)
     boolean existsByWorkerAndHirePost(Worker worker, HirePost hirePost);
     
+    // Insert an application unless one already exists; returns 0 for a duplicate
+    @Modifying
+    @Query(value = "INSERT INTO post_application_mapping (worker_id, post_id, application_time) " +
+                   "VALUES (:workerId, :postId, :now) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("workerId") Integer workerId, @Param("postId") Integer postId,
+                       @Param("now") LocalDateTime now);
+    
+    // Applications for a post with each worker and their stats row (null when the worker has none),
+    // best-ranked first. Rank blends a rating shrunk towards 3 stars by 5 virtual reviews, the
+    // completed share of bookings (Laplace-smoothed) and experience on the platform, capped at 20 jobs.
+    @Query("SELECT pam, ws, (" +
+           "0.6 * ((COALESCE(ws.ratingSum, 0) + 15.0) / (COALESCE(ws.reviewCount, 0) + 5.0)) / 5.0 + " +
+           "0.25 * (COALESCE(ws.jobsCompleted, 0) + 1.0) / (COALESCE(ws.jobsCompleted, 0) + COALESCE(ws.activeJobs, 0) + 2.0) + " +
+           "0.15 * (CASE WHEN COALESCE(ws.jobsCompleted, 0) > 20 THEN 20.0 ELSE COALESCE(ws.jobsCompleted, 0) END) / 20.0" +
+           ") AS score " +
+           "FROM PostApplicationMapping pam JOIN FETCH pam.worker w " +
+           "LEFT JOIN WorkerStats ws ON ws.workerId = w.workerId " +
+           "WHERE pam.hirePost.postId = :postId " +
+           "ORDER BY score DESC, pam.applicationTime ASC")
+    List<Object[]> findRankedApplicationsWithStats(@Param("postId") Integer postId);
+    
     // Count applications for a specific hire post
     @Query("SELECT COUNT(pam) FROM PostApplicationMapping pam WHERE pam.hirePost = :hirePost")
     Long countApplicationsByHirePost(@Param("hirePost") HirePost hirePost);
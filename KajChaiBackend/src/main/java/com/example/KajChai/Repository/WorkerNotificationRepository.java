@@ -3,6 +3,7 @@ package com.example.KajChai.Repository;
 import com.example.KajChai.DatabaseEntity.Worker;
 import com.example.KajChai.DatabaseEntity.WorkerNotification;
 import com.example.KajChai.Enum.NotificationStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +11,9 @@ import java.util.List;
 
 @Repository
 public interface WorkerNotificationRepository extends JpaRepository<WorkerNotification, Integer> {
+    @EntityGraph(attributePaths = "template")
     List<WorkerNotification> findByWorkerOrderByNotificationTimeDesc(Worker worker);
+    @EntityGraph(attributePaths = "template")
     List<WorkerNotification> findByWorkerAndStatusOrderByNotificationTimeDesc(Worker worker, NotificationStatus status);
     long countByWorkerAndStatus(Worker worker, NotificationStatus status);
 }
@@ -23,6 +23,19 @@ public interface WorkerRepository extends JpaRepository<Worker, Integer> {
     // Find workers by field with pagination
     Page<Worker> findByFieldIgnoreCase(String field, Pageable pageable);
     
+    // Id, field and coordinates of every worker, used to build the in-memory location index
+    @Query("SELECT w.workerId, w.field, w.latitude, w.longitude FROM Worker w")
+    List<Object[]> findAllLocationEntries();
+    
+    // Next chunk of workers without coordinates, keyed by id
+    @Query("SELECT w FROM Worker w WHERE (w.latitude IS NULL OR w.longitude IS NULL) " +
+           "AND w.workerId > :afterId ORDER BY w.workerId")
+    List<Worker> findWithoutLocationAfter(@Param("afterId") Integer afterId, Pageable pageable);
+    
+    // Number of workers without coordinates
+    @Query("SELECT COUNT(w) FROM Worker w WHERE w.latitude IS NULL OR w.longitude IS NULL")
+    long countWithoutLocation();
+    
     // Find workers by name (contains search)
     @Query("SELECT w FROM Worker w WHERE LOWER(w.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Worker> findByNameContainingIgnoreCase(@Param("name") String name);
@@ -0,0 +1,67 @@
+package com.example.KajChai.Repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.KajChai.DatabaseEntity.WorkerStats;
+
+@Repository
+public interface WorkerStatsRepository extends JpaRepository<WorkerStats, Integer> {
+    
+    // A worker was booked for a job
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO worker_stats (worker_id, jobs_completed, active_jobs, total_earned, review_count, rating_sum, updated_at) " +
+                   "VALUES (:workerId, 0, 1, 0, 0, 0, :now) " +
+                   "ON CONFLICT (worker_id) DO UPDATE SET active_jobs = worker_stats.active_jobs + 1, updated_at = :now",
+           nativeQuery = true)
+    int recordBooking(@Param("workerId") Integer workerId, @Param("now") LocalDateTime now);
+    
+    // A booked job was completed and paid
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO worker_stats (worker_id, jobs_completed, active_jobs, total_earned, review_count, rating_sum, updated_at) " +
+                   "VALUES (:workerId, 1, 0, :payment, 0, 0, :now) " +
+                   "ON CONFLICT (worker_id) DO UPDATE SET jobs_completed = worker_stats.jobs_completed + 1, " +
+                   "active_jobs = GREATEST(worker_stats.active_jobs - 1, 0), " +
+                   "total_earned = worker_stats.total_earned + :payment, updated_at = :now",
+           nativeQuery = true)
+    int recordCompletion(@Param("workerId") Integer workerId, @Param("payment") double payment,
+                         @Param("now") LocalDateTime now);
+    
+    // A customer reviewed the worker
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO worker_stats (worker_id, jobs_completed, active_jobs, total_earned, review_count, rating_sum, updated_at) " +
+                   "VALUES (:workerId, 0, 0, 0, 1, :stars, :now) " +
+                   "ON CONFLICT (worker_id) DO UPDATE SET review_count = worker_stats.review_count + 1, " +
+                   "rating_sum = worker_stats.rating_sum + :stars, updated_at = :now",
+           nativeQuery = true)
+    int recordReview(@Param("workerId") Integer workerId, @Param("stars") int stars, @Param("now") LocalDateTime now);
+    
+    // Recompute every worker's row from bookings and reviews
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO worker_stats (worker_id, jobs_completed, active_jobs, total_earned, review_count, rating_sum, updated_at) " +
+                   "SELECT w.worker_id, COALESCE(j.completed, 0), COALESCE(j.active, 0), COALESCE(j.earned, 0), " +
+                   "COALESCE(r.review_count, 0), COALESCE(r.rating_sum, 0), :now " +
+                   "FROM worker w " +
+                   "LEFT JOIN (SELECT b.worker_id, " +
+                   "COUNT(*) FILTER (WHERE hp.status = 'COMPLETED') AS completed, " +
+                   "COUNT(*) FILTER (WHERE hp.status = 'BOOKED') AS active, " +
+                   "SUM(hp.payment) FILTER (WHERE hp.status = 'COMPLETED') AS earned " +
+                   "FROM booking b JOIN hire_post hp ON hp.post_id = b.post_id GROUP BY b.worker_id) j ON j.worker_id = w.worker_id " +
+                   "LEFT JOIN (SELECT worker_id, COUNT(rating) AS review_count, SUM(rating) AS rating_sum " +
+                   "FROM review GROUP BY worker_id) r ON r.worker_id = w.worker_id " +
+                   "ON CONFLICT (worker_id) DO UPDATE SET jobs_completed = EXCLUDED.jobs_completed, " +
+                   "active_jobs = EXCLUDED.active_jobs, total_earned = EXCLUDED.total_earned, " +
+                   "review_count = EXCLUDED.review_count, rating_sum = EXCLUDED.rating_sum, updated_at = EXCLUDED.updated_at",
+           nativeQuery = true)
+    int rebuildAll(@Param("now") LocalDateTime now);
+}
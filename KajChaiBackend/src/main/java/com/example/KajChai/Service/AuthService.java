@@ -38,6 +38,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final WorkerLocationIndex workerLocationIndex;
+    private final NearestWorkerCache nearestWorkerCache;
 
     public AuthResponse initiateSignup(SignupRequest request) {
         // Check if user already exists
@@ -125,7 +127,9 @@ public class AuthService {
                         .experience(request.getExperience() != null ? request.getExperience() : 0.0f)
                         .rating(0.0f)
                         .build();
-                workerRepository.save(worker);
+                Worker savedWorker = workerRepository.save(worker);
+                workerLocationIndex.upsert(savedWorker);
+                nearestWorkerCache.workerChanged(savedWorker);
             }
 
             return AuthResponse.builder()
@@ -0,0 +1,253 @@
+package com.example.KajChai.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Offline gazetteer of Bangladeshi administrative units loaded from a bundled centroid file.
+ * Points are resolved to the nearest district (and upazila, when the file has upazila rows)
+ * through a coarse grid, so a lookup touches only a handful of centroids and needs no network.
+ */
+@Component
+@Slf4j
+public class BangladeshGazetteer {
+
+    private static final String DATA_FILE = "gazetteer/bd_admin_centroids.csv";
+    private static final double CELL_SIZE_DEGREES = 0.25;
+
+    // Rough bounding box of Bangladesh; anything outside is not resolved
+    private static final double MIN_LATITUDE = 20.5;
+    private static final double MAX_LATITUDE = 26.7;
+    private static final double MIN_LONGITUDE = 88.0;
+    private static final double MAX_LONGITUDE = 92.7;
+
+    // Current official spellings (as Nominatim returns them) and common variants, lower-cased,
+    // mapped to the legacy spelling used in the centroid file
+    private static final Map<String, String> DISTRICT_ALIASES = Map.ofEntries(
+            Map.entry("chattogram", "chittagong"),
+            Map.entry("cumilla", "comilla"),
+            Map.entry("bogura", "bogra"),
+            Map.entry("jashore", "jessore"),
+            Map.entry("barishal", "barisal"),
+            Map.entry("jhalokathi", "jhalokati"),
+            Map.entry("maulvibazar", "moulvibazar"),
+            Map.entry("netrakona", "netrokona"),
+            Map.entry("khagrachari", "khagrachhari"),
+            Map.entry("laxmipur", "lakshmipur"),
+            Map.entry("chapai nawabganj", "nawabganj"),
+            Map.entry("chapainawabganj", "nawabganj"),
+            Map.entry("chapai-nawabganj", "nawabganj"),
+            Map.entry("cox\u2019s bazar", "cox's bazar"),
+            Map.entry("coxs bazar", "cox's bazar"));
+
+    private final double maxDistrictDistanceKm;
+    private final double maxUpazilaDistanceKm;
+
+    private final Level districts = new Level();
+    private final Level upazilas = new Level();
+    // Lower-cased district name to its division and to its spelling in the centroid file
+    private final Map<String, String> divisionsByDistrict = new HashMap<>();
+    private final Map<String, String> districtNames = new HashMap<>();
+
+    public BangladeshGazetteer(@Value("${app.gazetteer.max-district-distance-km:80}") double maxDistrictDistanceKm,
+                               @Value("${app.gazetteer.max-upazila-distance-km:15}") double maxUpazilaDistanceKm) {
+        this.maxDistrictDistanceKm = maxDistrictDistanceKm;
+        this.maxUpazilaDistanceKm = maxUpazilaDistanceKm;
+        load();
+    }
+
+    /**
+     * Administrative units for a point, or null if it is outside Bangladesh or too far from any centroid
+     */
+    public AdminUnits resolve(double latitude, double longitude) {
+        if (latitude < MIN_LATITUDE || latitude > MAX_LATITUDE
+                || longitude < MIN_LONGITUDE || longitude > MAX_LONGITUDE) {
+            return null;
+        }
+
+        int district = districts.nearest(latitude, longitude, maxDistrictDistanceKm);
+        if (district < 0) {
+            return null;
+        }
+
+        // An upazila match names its own parent district, which is more precise than the nearest district centroid
+        int upazila = upazilas.nearest(latitude, longitude, maxUpazilaDistanceKm);
+        if (upazila >= 0) {
+            return new AdminUnits(upazilas.names.get(upazila), upazilas.districts.get(upazila), upazilas.divisions.get(upazila));
+        }
+        return new AdminUnits(null, districts.districts.get(district), districts.divisions.get(district));
+    }
+
+    public boolean hasUpazilaData() {
+        return !upazilas.names.isEmpty();
+    }
+
+    public boolean isKnownDistrict(String name) {
+        return name != null && divisionsByDistrict.containsKey(districtKey(name));
+    }
+
+    /**
+     * The gazetteer's spelling of a district, so "Chattogram" and "Chittagong" are stored alike; null if unknown
+     */
+    public String canonicalDistrict(String name) {
+        return name != null ? districtNames.get(districtKey(name)) : null;
+    }
+
+    /**
+     * Division of a known district, or null if the name is not a district
+     */
+    public String divisionOf(String district) {
+        return district != null ? divisionsByDistrict.get(districtKey(district)) : null;
+    }
+
+    private static String districtKey(String name) {
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        return DISTRICT_ALIASES.getOrDefault(key, key);
+    }
+
+    private void load() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(DATA_FILE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 6) {
+                    log.warn("Skipping malformed gazetteer line: {}", line);
+                    continue;
+                }
+                String name = parts[1].trim();
+                String district = parts[2].trim();
+                String division = parts[3].trim();
+                double latitude = Double.parseDouble(parts[4].trim());
+                double longitude = Double.parseDouble(parts[5].trim());
+
+                if ("DISTRICT".equals(parts[0].trim())) {
+                    districts.add(name, district, division, latitude, longitude);
+                    divisionsByDistrict.put(name.toLowerCase(Locale.ROOT), division);
+                    districtNames.put(name.toLowerCase(Locale.ROOT), name);
+                } else if ("UPAZILA".equals(parts[0].trim())) {
+                    upazilas.add(name, district, division, latitude, longitude);
+                }
+            }
+            log.info("Loaded gazetteer with {} districts and {} upazilas", districts.names.size(), upazilas.names.size());
+        } catch (Exception e) {
+            log.error("Failed to load gazetteer from {}: {}", DATA_FILE, e.getMessage());
+        }
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * One administrative level: parallel lists of names and coordinates plus a grid of indices
+     */
+    private static final class Level {
+        private final List<String> names = new ArrayList<>();
+        private final List<String> districts = new ArrayList<>();
+        private final List<String> divisions = new ArrayList<>();
+        private double[] latitudes = new double[64];
+        private double[] longitudes = new double[64];
+        private final Map<Long, List<Integer>> cells = new HashMap<>();
+
+        private void add(String name, String district, String division, double latitude, double longitude) {
+            int index = names.size();
+            names.add(name);
+            districts.add(district);
+            divisions.add(division);
+            if (index == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, index * 2);
+                longitudes = Arrays.copyOf(longitudes, index * 2);
+            }
+            latitudes[index] = latitude;
+            longitudes[index] = longitude;
+            cells.computeIfAbsent(cellKey(cellIndex(latitude), cellIndex(longitude)), key -> new ArrayList<>()).add(index);
+        }
+
+        /**
+         * Index of the nearest centroid within maxDistanceKm, or -1
+         */
+        private int nearest(double latitude, double longitude, double maxDistanceKm) {
+            if (names.isEmpty()) {
+                return -1;
+            }
+
+            // Cells are at least this many km wide inside Bangladesh's latitude range
+            double cellKm = CELL_SIZE_DEGREES * Math.PI * GeoDistance.EARTH_RADIUS_KM / 180.0 * Math.cos(Math.toRadians(MAX_LATITUDE));
+            int maxRing = (int) Math.ceil(maxDistanceKm / cellKm) + 1;
+            int queryRow = cellIndex(latitude);
+            int queryCol = cellIndex(longitude);
+
+            int best = -1;
+            double bestDistance = maxDistanceKm;
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int row = queryRow - ring; row <= queryRow + ring; row++) {
+                    boolean edgeRow = row == queryRow - ring || row == queryRow + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int col = queryCol - ring; col <= queryCol + ring; col += step) {
+                        List<Integer> cell = cells.get(cellKey(row, col));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (int index : cell) {
+                            double distance = GeoDistance.haversineKm(latitude, longitude, latitudes[index], longitudes[index]);
+                            if (distance <= bestDistance) {
+                                bestDistance = distance;
+                                best = index;
+                            }
+                        }
+                    }
+                }
+                // Nothing in ring + 1 can be closer than ring full cells
+                if (best >= 0 && bestDistance <= ring * cellKm) {
+                    break;
+                }
+            }
+            return best;
+        }
+    }
+
+    public static final class AdminUnits {
+        private final String upazila;
+        private final String district;
+        private final String division;
+
+        private AdminUnits(String upazila, String district, String division) {
+            this.upazila = upazila;
+            this.district = district;
+            this.division = division;
+        }
+
+        public String getUpazila() {
+            return upazila;
+        }
+
+        public String getDistrict() {
+            return district;
+        }
+
+        public String getDivision() {
+            return division;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.Enum.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for chat messages. Ids come from blocks reserved on the chat_messages
+ * sequence and timestamps are taken in-process, so a message can be broadcast as soon as it is queued.
+ * A single writer thread drains the queue and inserts each batch with one JDBC batch, plus one
+ * chat_rooms update per room in the batch. Ids are assigned and queued under one lock, so rows
+ * become visible in id order and "after" paging never skips a message.
+ * A full queue rejects new messages after a short wait instead of growing without bound.
+ * In sync mode each message is inserted and committed on the caller's thread under that same lock,
+ * so sync rows are visible in id order too. The caller never waits on the writer thread, which could
+ * deadlock on the single pooled connection, and must not be inside a transaction of its own.
+ */
+@Component
+@Slf4j
+public class ChatMessageWriter {
+
+    private static final String INSERT_MESSAGE =
+        "INSERT INTO chat_messages (message_id, room_id, sender_id, sender_role, content, is_read, sent_at) " +
+        "VALUES (?, ?, ?, ?, ?, false, ?)";
+    private static final String UPDATE_ROOM =
+        "UPDATE chat_rooms SET last_message_id = GREATEST(last_message_id, ?), last_activity = GREATEST(last_activity, ?), " +
+        "customer_unread_count = customer_unread_count + ?, worker_unread_count = worker_unread_count + ? " +
+        "WHERE room_id = ?";
+
+    public enum Durability {
+        ASYNC, // Broadcast once queued; a crash loses what is still queued
+        SYNC   // Insert and commit before returning
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReminderCounterService reminderCounterService;
+    private final Durability durability;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final int idBlockSize;
+
+    private final BlockingQueue<PendingMessage> queue;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    // Guarded by this
+    private String sequenceName;
+    private long[] reservedIds = new long[0];
+    private int nextReserved;
+
+    public ChatMessageWriter(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             ReminderCounterService reminderCounterService,
+                             @Value("${app.chat.write-behind.durability:async}") String durability,
+                             @Value("${app.chat.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.chat.write-behind.batch-size:500}") int batchSize,
+                             @Value("${app.chat.write-behind.offer-timeout-ms:200}") long offerTimeoutMs,
+                             @Value("${app.chat.write-behind.id-block-size:100}") int idBlockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.reminderCounterService = reminderCounterService;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase());
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.idBlockSize = idBlockSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("chat.writebehind.queue.size", queue, BlockingQueue::size);
+        writer.submit(this::drain);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer flushes whatever is still queued before it exits
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.error("Chat writer did not finish in time, {} messages were not saved", queue.size());
+            writer.shutdownNow();
+        }
+    }
+
+    /**
+     * Assign the message its id and timestamp and hand it to the writer, or insert it right away
+     * in sync mode. Throws when the queue stays full for longer than the offer timeout.
+     */
+    public PendingMessage append(Long roomId, Integer customerId, Integer workerId,
+                                 Integer senderId, UserRole senderRole, String content) {
+        PendingMessage message;
+        if (durability == Durability.SYNC) {
+            synchronized (this) {
+                message = new PendingMessage(nextMessageId(), roomId, customerId, workerId, senderId, senderRole,
+                    content, LocalDateTime.now());
+                // Committed before the lock is released, so no later id can become visible first
+                List<PendingMessage> single = List.of(message);
+                transactionTemplate.executeWithoutResult(status -> insert(single));
+            }
+            invalidateCounters(List.of(message));
+            return message;
+        }
+
+        synchronized (this) {
+            message = new PendingMessage(nextMessageId(), roomId, customerId, workerId, senderId, senderRole,
+                content, LocalDateTime.now());
+            boolean queued;
+            try {
+                queued = queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                meterRegistry.counter("chat.writebehind.rejected").increment();
+                throw new RuntimeException("Chat is busy, please try again");
+            }
+        }
+        return message;
+    }
+
+    private void drain() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                // Whatever queued up while the previous batch was being written goes into this one
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Chat writer failed to write a batch", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingMessage> batch) throws InterruptedException {
+        while (true) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+                break;
+            } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+                // No connection, a dropped connection, or a lock/serialization conflict: the rows
+                // themselves are fine, so keep the batch rather than dropping it
+                log.warn("Chat writer hit a transient database error, retrying {} messages: {}", batch.size(), e.getMessage());
+                Thread.sleep(1000);
+            } catch (Exception e) {
+                // One bad row (e.g. a room deleted meanwhile) must not take the rest of the batch with it
+                log.warn("Batch insert of {} chat messages failed, retrying one by one: {}", batch.size(), e.getMessage());
+                for (PendingMessage message : batch) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(message)));
+                    } catch (Exception single) {
+                        meterRegistry.counter("chat.writebehind.failed").increment();
+                        log.error("Dropped chat message {} for room {}: {}", message.getMessageId(), message.getRoomId(), single.getMessage());
+                    }
+                }
+                break;
+            }
+        }
+        meterRegistry.counter("chat.writebehind.rows").increment(batch.size());
+        invalidateCounters(batch);
+    }
+
+    private void insert(List<PendingMessage> messages) {
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getMessageId());
+            ps.setLong(2, message.getRoomId());
+            ps.setInt(3, message.getSenderId());
+            ps.setString(4, message.getSenderRole().name());
+            ps.setString(5, message.getContent());
+            ps.setTimestamp(6, Timestamp.valueOf(message.getSentAt()));
+        });
+
+        // One update per room: latest message and activity, plus the unread messages for each side
+        Map<Long, RoomDelta> deltas = new LinkedHashMap<>();
+        for (PendingMessage message : messages) {
+            deltas.computeIfAbsent(message.getRoomId(), RoomDelta::new).add(message);
+        }
+        List<RoomDelta> rooms = new ArrayList<>(deltas.values());
+        jdbcTemplate.batchUpdate(UPDATE_ROOM, rooms, rooms.size(), (ps, room) -> {
+            ps.setLong(1, room.lastMessageId);
+            ps.setTimestamp(2, Timestamp.valueOf(room.lastActivity));
+            ps.setInt(3, room.customerUnread);
+            ps.setInt(4, room.workerUnread);
+            ps.setLong(5, room.roomId);
+        });
+    }
+
+    private void invalidateCounters(List<PendingMessage> messages) {
+        for (PendingMessage message : messages) {
+            reminderCounterService.invalidateCustomer(message.getCustomerId());
+            reminderCounterService.invalidateWorker(message.getWorkerId());
+        }
+    }
+
+    // Caller holds the lock
+    private long nextMessageId() {
+        if (nextReserved == reservedIds.length) {
+            if (sequenceName == null) {
+                sequenceName = jdbcTemplate.queryForObject(
+                    "SELECT pg_get_serial_sequence('chat_messages', 'message_id')", String.class);
+            }
+            // Other instances draw from the same sequence, so a block is not necessarily contiguous
+            reservedIds = jdbcTemplate.queryForList(
+                "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, sequenceName, idBlockSize)
+                .stream().mapToLong(Long::longValue).sorted().toArray();
+            nextReserved = 0;
+        }
+        return reservedIds[nextReserved++];
+    }
+
+    private static final class RoomDelta {
+        private final long roomId;
+        private long lastMessageId;
+        private LocalDateTime lastActivity;
+        private int customerUnread;
+        private int workerUnread;
+
+        private RoomDelta(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        private void add(PendingMessage message) {
+            lastMessageId = Math.max(lastMessageId, message.getMessageId());
+            if (lastActivity == null || message.getSentAt().isAfter(lastActivity)) {
+                lastActivity = message.getSentAt();
+            }
+            if (message.getSenderRole() == UserRole.CUSTOMER) {
+                workerUnread++;
+            } else {
+                customerUnread++;
+            }
+        }
+    }
+
+    public static final class PendingMessage {
+        private final Long messageId;
+        private final Long roomId;
+        private final Integer customerId;
+        private final Integer workerId;
+        private final Integer senderId;
+        private final UserRole senderRole;
+        private final String content;
+        private final LocalDateTime sentAt;
+
+        private PendingMessage(Long messageId, Long roomId, Integer customerId, Integer workerId,
+                               Integer senderId, UserRole senderRole, String content, LocalDateTime sentAt) {
+            this.messageId = messageId;
+            this.roomId = roomId;
+            this.customerId = customerId;
+            this.workerId = workerId;
+            this.senderId = senderId;
+            this.senderRole = senderRole;
+            this.content = content;
+            this.sentAt = sentAt;
+        }
+
+        public Long getMessageId() {
+            return messageId;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public Integer getCustomerId() {
+            return customerId;
+        }
+
+        public Integer getWorkerId() {
+            return workerId;
+        }
+
+        public Integer getSenderId() {
+            return senderId;
+        }
+
+        public UserRole getSenderRole() {
+            return senderRole;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public LocalDateTime getSentAt() {
+            return sentAt;
+        }
+    }
+}
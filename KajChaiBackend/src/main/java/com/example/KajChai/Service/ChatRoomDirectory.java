@@ -0,0 +1,179 @@
+package com.example.KajChai.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * In-memory map of chat rooms: (customerId, workerId) to room, and room to its participants and
+ * their display names. A miss resolves the room with one upsert that only inserts when both users
+ * exist, so concurrent first messages cannot create two rooms for the same pair. A cached room is
+ * proof that both participants exist, so a steady-state send reads nothing from the database.
+ * Least recently used rooms are dropped past the configured size; renames evict the renamed user's rooms.
+ */
+@Service
+public class ChatRoomDirectory {
+
+    // Insert-or-touch, so the room id comes back whether or not the row already existed
+    private static final String RESOLVE_ROOM =
+        "WITH room AS (" +
+        "INSERT INTO chat_rooms (room_name, customer_id, worker_id, created_at, last_activity) " +
+        "SELECT ?, c.customer_id, w.worker_id, ?, ? FROM customer c, worker w " +
+        "WHERE c.customer_id = ? AND w.worker_id = ? " +
+        "ON CONFLICT (customer_id, worker_id) DO UPDATE SET customer_id = EXCLUDED.customer_id " +
+        "RETURNING room_id, customer_id, worker_id) " +
+        "SELECT room.room_id, c.customer_name, w.name AS worker_name FROM room " +
+        "JOIN customer c ON c.customer_id = room.customer_id " +
+        "JOIN worker w ON w.worker_id = room.worker_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxRooms;
+
+    // Guarded by this
+    private final Map<Long, Long> roomIdsByPair = new HashMap<>();
+    private final LinkedHashMap<Long, Room> roomsById;
+
+    public ChatRoomDirectory(JdbcTemplate jdbcTemplate,
+                             @Value("${app.chat.room-cache.max-rooms:10000}") int maxRooms) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxRooms = maxRooms;
+        this.roomsById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Room> eldest) {
+                if (size() > ChatRoomDirectory.this.maxRooms) {
+                    roomIdsByPair.remove(pairKey(eldest.getValue().customerId, eldest.getValue().workerId));
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The pair's cached room, or null when it has to be resolved
+     */
+    public synchronized Room find(Integer customerId, Integer workerId) {
+        Long roomId = roomIdsByPair.get(pairKey(customerId, workerId));
+        return roomId != null ? roomsById.get(roomId) : null;
+    }
+
+    /**
+     * Get or create the pair's room. Throws when either user does not exist.
+     * Runs in the caller's transaction, so a new room becomes visible when that commits.
+     */
+    public Room resolve(Integer customerId, Integer workerId) {
+        Room room = find(customerId, workerId);
+        if (room != null) {
+            return room;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Room> rows = jdbcTemplate.query(RESOLVE_ROOM,
+            (rs, rowNum) -> new Room(rs.getLong("room_id"), customerId, workerId,
+                rs.getString("customer_name"), rs.getString("worker_name")),
+            "customer_" + customerId + "_worker_" + workerId, now, now, customerId, workerId);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Receiver not found or invalid user type for chat");
+        }
+
+        Room resolved = rows.get(0);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A room inserted by a transaction that rolls back must never be cached
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(resolved);
+                }
+            });
+        } else {
+            cache(resolved);
+        }
+        return resolved;
+    }
+
+    private synchronized void cache(Room room) {
+        roomIdsByPair.put(pairKey(room.customerId, room.workerId), room.roomId);
+        roomsById.put(room.roomId, room);
+    }
+
+    public void evictCustomer(Integer customerId) {
+        evict(room -> room.customerId.equals(customerId));
+    }
+
+    public void evictWorker(Integer workerId) {
+        evict(room -> room.workerId.equals(workerId));
+    }
+
+    private void evict(Predicate<Room> affected) {
+        removeRooms(affected);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Drop again after commit, in case a concurrent miss cached the old name meanwhile
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removeRooms(affected);
+                }
+            });
+        }
+    }
+
+    private synchronized void removeRooms(Predicate<Room> affected) {
+        roomsById.values().removeIf(room -> {
+            if (affected.test(room)) {
+                roomIdsByPair.remove(pairKey(room.customerId, room.workerId));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private static long pairKey(Integer customerId, Integer workerId) {
+        return ((long) customerId << 32) | (workerId & 0xffffffffL);
+    }
+
+    public static final class Room {
+        private final Long roomId;
+        private final Integer customerId;
+        private final Integer workerId;
+        private final String customerName;
+        private final String workerName;
+
+        private Room(Long roomId, Integer customerId, Integer workerId, String customerName, String workerName) {
+            this.roomId = roomId;
+            this.customerId = customerId;
+            this.workerId = workerId;
+            this.customerName = customerName;
+            this.workerName = workerName;
+        }
+
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        public Integer getCustomerId() {
+            return customerId;
+        }
+
+        public Integer getWorkerId() {
+            return workerId;
+        }
+
+        public String getCustomerName() {
+            return customerName;
+        }
+
+        public String getWorkerName() {
+            return workerName;
+        }
+    }
+}
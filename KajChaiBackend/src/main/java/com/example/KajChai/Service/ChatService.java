@@ -5,11 +5,18 @@ import com.example.KajChai.DTO.*;
 import com.example.KajChai.Enum.UserRole;
 import com.example.KajChai.Repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +24,22 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ChatService {
 
+    private static final int DEFAULT_MESSAGE_PAGE_SIZE = 50;
+    private static final int MAX_MESSAGE_PAGE_SIZE = 200;
+    private static final int DEFAULT_ROOM_PAGE_SIZE = 20;
+    private static final int MAX_ROOM_PAGE_SIZE = 100;
+    
+    // Keyset start for the inbox: later than any real activity
+    private static final LocalDateTime INBOX_START_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final CustomerRepository customerRepository;
     private final WorkerRepository workerRepository;
+    private final ReminderCounterService reminderCounterService;
+    private final ChatMessageWriter chatMessageWriter;
+    private final ChatRoomDirectory chatRoomDirectory;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public ChatRoomResponse createOrGetChatRoom(Integer currentUserId, UserRole currentUserRole, Integer otherUserId) {
@@ -34,50 +53,171 @@ public class ChatService {
             workerId = currentUserId;
         }
 
-        // Check if chat room already exists
-        Optional<ChatRoom> existingRoom = chatRoomRepository.findByCustomerIdAndWorkerId(customerId, workerId);
-        
-        ChatRoom chatRoom;
-        if (existingRoom.isPresent()) {
-            chatRoom = existingRoom.get();
-        } else {
-            // Create new chat room
-            String roomName = "customer_" + customerId + "_worker_" + workerId;
-            chatRoom = ChatRoom.builder()
-                    .roomName(roomName)
-                    .customerId(customerId)
-                    .workerId(workerId)
-                    .lastActivity(LocalDateTime.now())
-                    .build();
-            chatRoom = chatRoomRepository.save(chatRoom);
-        }
+        // Get or create the chat room; the upsert makes concurrent creation safe
+        Long roomId = chatRoomDirectory.resolve(customerId, workerId).getRoomId();
+        ChatRoom chatRoom = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new RuntimeException("Chat room not found"));
 
         return buildChatRoomResponse(chatRoom, currentUserId, currentUserRole);
     }
 
     public List<ChatRoomResponse> getUserChatRooms(Integer userId, UserRole userRole) {
-        List<ChatRoom> chatRooms = chatRoomRepository.findByUserIdOrderByLastActivityDesc(userId);
-        List<ChatRoomResponse> responses = new ArrayList<>();
+        return loadInbox(userId, userRole, INBOX_START_TIME, Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
 
-        for (ChatRoom room : chatRooms) {
-            responses.add(buildChatRoomResponse(room, userId, userRole));
+    /**
+     * Page of the user's inbox, most recently active first, built by a single query per page.
+     * Pages are keyed on (last activity, roomId).
+     */
+    public ChatRoomPageResponse getUserChatRoomsPage(Integer userId, UserRole userRole, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_ROOM_PAGE_SIZE : Math.min(limit, MAX_ROOM_PAGE_SIZE);
+        
+        LocalDateTime afterActivity = INBOX_START_TIME;
+        long afterRoomId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterActivity = LocalDateTime.parse(parts[0]);
+                afterRoomId = Long.parseLong(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
         }
+        
+        // Fetch one extra room to know whether another page exists
+        List<ChatRoomResponse> rooms = loadInbox(userId, userRole, afterActivity, afterRoomId, pageSize + 1);
+        boolean hasNext = rooms.size() > pageSize;
+        if (hasNext) {
+            rooms = rooms.subList(0, pageSize);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            ChatRoomResponse last = rooms.get(rooms.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    (last.getLastActivity() + "|" + last.getRoomId()).getBytes(StandardCharsets.UTF_8));
+        }
+        
+        return ChatRoomPageResponse.builder()
+                .chatRooms(rooms)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
 
+    private List<ChatRoomResponse> loadInbox(Integer userId, UserRole userRole, LocalDateTime afterActivity,
+                                             long afterRoomId, int limit) {
+        List<Object[]> rows = userRole == UserRole.CUSTOMER
+                ? chatRoomRepository.findCustomerInbox(userId, afterActivity, afterRoomId, limit)
+                : chatRoomRepository.findWorkerInbox(userId, afterActivity, afterRoomId, limit);
+        
+        List<ChatRoomResponse> responses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            responses.add(ChatRoomResponse.builder()
+                    .roomId(((Number) row[0]).longValue())
+                    .roomName((String) row[1])
+                    .customerId(((Number) row[2]).intValue())
+                    .customerName(row[3] != null ? (String) row[3] : "Unknown Customer")
+                    .workerId(((Number) row[4]).intValue())
+                    .workerName(row[5] != null ? (String) row[5] : "Unknown Worker")
+                    .lastMessage(row[6] != null ? (String) row[6] : "No messages yet")
+                    .lastActivity(toLocalDateTime(row[7]))
+                    .unreadCount(((Number) row[8]).intValue())
+                    .otherUserPhoto((String) row[9])
+                    .build());
+        }
         return responses;
     }
 
-    public List<ChatMessageResponse> getChatMessages(Long roomId, Integer userId) {
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    public List<ChatMessageResponse> getChatMessages(Long roomId, Integer userId, UserRole userRole) {
+        ChatRoom room = getRoomForParticipant(roomId, userId, userRole);
+        String[] names = getParticipantNames(room);
         List<ChatMessage> messages = chatMessageRepository.findByChatRoom_RoomIdOrderBySentAtAsc(roomId);
         List<ChatMessageResponse> responses = new ArrayList<>();
 
         for (ChatMessage message : messages) {
-            responses.add(buildChatMessageResponse(message));
+            responses.add(buildChatMessageResponse(message, room, names));
         }
 
         return responses;
     }
 
-    @Transactional
+    /**
+     * One page of a room's history, keyed on message id. With neither cursor the latest messages
+     * are returned; "before" scrolls back from a message and "after" fetches what arrived since one.
+     * Messages are always returned oldest first.
+     */
+    public ChatMessagePageResponse getChatMessagesPage(Long roomId, Integer userId, UserRole userRole,
+                                                       Long before, Long after, Integer limit) {
+        ChatRoom room = getRoomForParticipant(roomId, userId, userRole);
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_MESSAGE_PAGE_SIZE : Math.min(limit, MAX_MESSAGE_PAGE_SIZE);
+        
+        // Fetch one extra message to know whether another page exists
+        List<ChatMessage> messages;
+        if (after != null) {
+            messages = chatMessageRepository.findPageAfter(roomId, after, PageRequest.of(0, pageSize + 1));
+        } else {
+            messages = chatMessageRepository.findPageBefore(roomId, before != null ? before : Long.MAX_VALUE,
+                    PageRequest.of(0, pageSize + 1));
+        }
+        
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
+        if (after == null) {
+            messages = new ArrayList<>(messages);
+            Collections.reverse(messages);
+        }
+        
+        // Every sender is one of the room's two participants
+        String[] names = getParticipantNames(room);
+        List<ChatMessageResponse> responses = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            responses.add(buildChatMessageResponse(message, room, names));
+        }
+        
+        return ChatMessagePageResponse.builder()
+                .messages(responses)
+                .hasMore(hasMore)
+                .oldestMessageId(responses.isEmpty() ? null : responses.get(0).getMessageId())
+                .newestMessageId(responses.isEmpty() ? null : responses.get(responses.size() - 1).getMessageId())
+                .build();
+    }
+
+    private ChatRoom getRoomForParticipant(Long roomId, Integer userId, UserRole userRole) {
+        ChatRoom room = chatRoomRepository.findById(roomId)
+                .orElseThrow(() -> new RuntimeException("Chat room not found"));
+        Integer participantId = userRole == UserRole.CUSTOMER ? room.getCustomerId() : room.getWorkerId();
+        if (!participantId.equals(userId)) {
+            throw new RuntimeException("Access denied: not a participant of this chat room");
+        }
+        return room;
+    }
+
+    // {customer name, worker name}
+    private String[] getParticipantNames(ChatRoom room) {
+        ChatRoomDirectory.Room cached = chatRoomDirectory.find(room.getCustomerId(), room.getWorkerId());
+        if (cached != null) {
+            return new String[] { cached.getCustomerName(), cached.getWorkerName() };
+        }
+        return new String[] {
+                getSenderName(room.getCustomerId(), UserRole.CUSTOMER),
+                getSenderName(room.getWorkerId(), UserRole.WORKER)
+        };
+    }
+
+    /**
+     * Not transactional: a send to a cached room queues the message without taking a connection.
+     * Only a cache miss resolves the room, in its own short transaction.
+     */
     public ChatMessageResponse sendMessage(Integer senderId, UserRole senderRole, SendMessageRequest request) {
         // Validate input
         if (request.getReceiverRole() == null) {
@@ -90,46 +230,60 @@ public class ChatService {
             throw new IllegalArgumentException("Users of the same type cannot message each other");
         }
         
-        // Validate that the receiver actually exists with the expected role
-        if (!validateUserExistsWithRole(request.getReceiverId(), request.getReceiverRole())) {
-            throw new IllegalArgumentException("Receiver not found or invalid user type for chat");
+        // A cached room means both participants exist; otherwise the upsert checks the receiver and
+        // gets or creates the room in one statement
+        Integer customerId = senderRole == UserRole.CUSTOMER ? senderId : request.getReceiverId();
+        Integer workerId = senderRole == UserRole.CUSTOMER ? request.getReceiverId() : senderId;
+        ChatRoomDirectory.Room room = chatRoomDirectory.find(customerId, workerId);
+        if (room == null) {
+            // Committed before the message is queued, so the chat writer can always see a new room
+            room = transactionTemplate.execute(status -> chatRoomDirectory.resolve(customerId, workerId));
         }
 
-        // Create or get chat room
-        ChatRoomResponse roomResponse = createOrGetChatRoom(senderId, senderRole, request.getReceiverId());
-        
-        Optional<ChatRoom> chatRoomOpt = chatRoomRepository.findById(roomResponse.getRoomId());
-        if (chatRoomOpt.isEmpty()) {
-            throw new RuntimeException("Chat room not found");
-        }
+        // The message gets its id and timestamp now and is saved by the chat writer
+        ChatMessageWriter.PendingMessage message = chatMessageWriter.append(room.getRoomId(), customerId, workerId,
+                senderId, senderRole, request.getContent());
 
-        ChatRoom chatRoom = chatRoomOpt.get();
-
-        // Create message
-        ChatMessage message = ChatMessage.builder()
-                .chatRoom(chatRoom)
+        return ChatMessageResponse.builder()
+                .messageId(message.getMessageId())
+                .roomId(message.getRoomId())
                 .senderId(senderId)
                 .senderRole(senderRole)
-                .content(request.getContent())
+                .senderName(senderRole == UserRole.CUSTOMER ? room.getCustomerName() : room.getWorkerName())
+                .content(message.getContent())
                 .isRead(false)
+                .sentAt(message.getSentAt())
                 .build();
-
-        message = chatMessageRepository.save(message);
-
-        // Update room last activity
-        chatRoom.setLastActivity(LocalDateTime.now());
-        chatRoomRepository.save(chatRoom);
-
-        return buildChatMessageResponse(message);
     }
 
+    /**
+     * Moves the user's read watermark to the room's last message with a single UPDATE.
+     * Returns the receipt to broadcast, or null when there was nothing unread.
+     */
     @Transactional
-    public void markMessagesAsRead(Long roomId, Integer userId) {
-        List<ChatMessage> unreadMessages = chatMessageRepository.findUnreadMessagesByRoomAndReceiver(roomId, userId);
-        for (ChatMessage message : unreadMessages) {
-            message.setIsRead(true);
+    public ChatReadReceipt markMessagesAsRead(Long roomId, Integer userId, UserRole userRole) {
+        getRoomForParticipant(roomId, userId, userRole);
+        // The watermark comes back from the UPDATE itself, so it includes messages written since the room was read
+        Long lastReadMessageId = userRole == UserRole.CUSTOMER
+                ? chatRoomRepository.markReadByCustomer(roomId, userId)
+                : chatRoomRepository.markReadByWorker(roomId, userId);
+        if (lastReadMessageId == null) {
+            return null;
         }
-        chatMessageRepository.saveAll(unreadMessages);
+        
+        if (userRole == UserRole.CUSTOMER) {
+            reminderCounterService.invalidateCustomer(userId);
+        } else {
+            reminderCounterService.invalidateWorker(userId);
+        }
+        
+        return ChatReadReceipt.builder()
+                .roomId(roomId)
+                .readerId(userId)
+                .readerRole(userRole)
+                .lastReadMessageId(lastReadMessageId)
+                .readAt(LocalDateTime.now())
+                .build();
     }
 
     public List<UserListResponse> getAvailableUsers(Integer currentUserId, UserRole currentUserRole) {
@@ -186,8 +340,8 @@ public class ChatService {
         ChatMessage lastMessage = chatMessageRepository.findLastMessageByRoomId(room.getRoomId());
         String lastMessageContent = lastMessage != null ? lastMessage.getContent() : "No messages yet";
 
-        // Get unread count
-        Long unreadCount = chatMessageRepository.countUnreadMessagesByRoomAndReceiver(room.getRoomId(), currentUserId);
+        // Get unread count; null on a room that was just created
+        Integer unreadCount = currentUserRole == UserRole.CUSTOMER ? room.getCustomerUnreadCount() : room.getWorkerUnreadCount();
 
         return ChatRoomResponse.builder()
                 .roomId(room.getRoomId())
@@ -198,22 +352,23 @@ public class ChatService {
                 .workerName(currentUserRole == UserRole.CUSTOMER ? otherUserName : getCurrentUserName(currentUserId, currentUserRole))
                 .lastMessage(lastMessageContent)
                 .lastActivity(room.getLastActivity())
-                .unreadCount(unreadCount.intValue())
+                .unreadCount(unreadCount != null ? unreadCount : 0)
                 .otherUserPhoto(otherUserPhoto)
                 .build();
     }
 
-    private ChatMessageResponse buildChatMessageResponse(ChatMessage message) {
-        String senderName = getSenderName(message.getSenderId(), message.getSenderRole());
+    private ChatMessageResponse buildChatMessageResponse(ChatMessage message, ChatRoom room, String[] participantNames) {
+        // A message is read once the other participant's watermark has reached it
+        Long watermark = message.getSenderRole() == UserRole.CUSTOMER ? room.getWorkerLastReadId() : room.getCustomerLastReadId();
         
         return ChatMessageResponse.builder()
                 .messageId(message.getMessageId())
-                .roomId(message.getChatRoom().getRoomId())
+                .roomId(room.getRoomId())
                 .senderId(message.getSenderId())
                 .senderRole(message.getSenderRole())
-                .senderName(senderName)
+                .senderName(message.getSenderRole() == UserRole.CUSTOMER ? participantNames[0] : participantNames[1])
                 .content(message.getContent())
-                .isRead(message.getIsRead())
+                .isRead(watermark != null && message.getMessageId() <= watermark)
                 .sentAt(message.getSentAt())
                 .build();
     }
@@ -238,24 +393,15 @@ public class ChatService {
         }
     }
 
-    private boolean validateUserExistsWithRole(Integer userId, UserRole expectedRole) {
-        if (expectedRole == UserRole.CUSTOMER) {
-            return customerRepository.findById(userId).isPresent();
-        } else if (expectedRole == UserRole.WORKER) {
-            return workerRepository.findById(userId).isPresent();
-        }
-        return false;
-    }
-    
     // Get unread chat message count for a customer
     public Long getUnreadChatMessageCount(Integer customerId) {
         // Count unread messages in all chat rooms where this customer is a participant
-        return chatMessageRepository.countUnreadMessagesByCustomerId(customerId);
+        return chatRoomRepository.sumCustomerUnreadCount(customerId);
     }
     
     // Get unread chat message count for a worker
     public Long getUnreadChatMessageCountForWorker(Integer workerId) {
         // Count unread messages in all chat rooms where this worker is a participant
-        return chatMessageRepository.countUnreadMessagesByWorkerId(workerId);
+        return chatRoomRepository.sumWorkerUnreadCount(workerId);
     }
 }
@@ -40,6 +40,33 @@ public class DatabaseMigrationService implements ApplicationRunner {
         
         // Migrate complaint status from AWAITING_CLARIFICATION to UNDER_INVESTIGATION
         migrateComplaintStatus();
+        
+        // Create indexes used by location-based hire post queries
+        createLocationIndexes();
+        
+        // Create indexes backing the keyset-paginated hire post feeds
+        createHirePostFeedIndexes();
+        
+        // Enforce one application per worker and post, and one booking per post
+        createApplicationAndBookingConstraints();
+        
+        // Allow the EXPIRED status and index posts by deadline for the expiry scheduler
+        migrateHirePostExpiry();
+        
+        // Add the full-text search vector over hire post descriptions
+        createHirePostSearchVector();
+        
+        // Create the indexes backing paged chat history and the inbox
+        createChatIndexes();
+        
+        // Seed the per-room read watermarks and unread counts from the per-message read flags
+        migrateChatReadWatermarks();
+        
+        // Merge duplicate rooms and enforce one room per customer and worker
+        createChatRoomUniqueIndex();
+        
+        // Let worker notifications take their text from a shared template
+        migrateWorkerNotificationTemplates();
     }
     
     private void migrateForumPosts() {
@@ -141,4 +168,218 @@ public class DatabaseMigrationService implements ApplicationRunner {
             // Don't throw exception here as it might prevent application startup
         }
     }
-}
\ No newline at end of file
+    
+    private void createLocationIndexes() {
+        log.info("Creating location indexes...");
+        
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_customer_lat_lon ON customer (latitude, longitude)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_status_customer ON hire_post (status, customer_id)");
+            
+            log.info("Location indexes are in place");
+        } catch (Exception e) {
+            log.error("Error creating location indexes: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void createHirePostFeedIndexes() {
+        log.info("Creating hire post feed indexes...");
+        
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_status_field_time ON hire_post (status, field, post_time DESC, post_id DESC)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_status_time ON hire_post (status, post_time DESC, post_id DESC)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_customer_time ON hire_post (customer_id, post_time DESC, post_id DESC)");
+            
+            log.info("Hire post feed indexes are in place");
+        } catch (Exception e) {
+            log.error("Error creating hire post feed indexes: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void createApplicationAndBookingConstraints() {
+        log.info("Creating application and booking unique indexes...");
+        
+        try {
+            // Duplicate applications carry no extra information; keep the earliest one
+            int removed = jdbcTemplate.update(
+                "DELETE FROM post_application_mapping a USING post_application_mapping b " +
+                "WHERE a.worker_id = b.worker_id AND a.post_id = b.post_id AND a.application_id > b.application_id"
+            );
+            if (removed > 0) {
+                log.info("Removed {} duplicate applications", removed);
+            }
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_application_worker_post ON post_application_mapping (worker_id, post_id)");
+        } catch (Exception e) {
+            log.error("Error creating application unique index: {}", e.getMessage());
+        }
+        
+        try {
+            // Duplicate bookings are left for an admin to resolve; the index is created once they are gone
+            Integer duplicatePosts = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT post_id FROM booking GROUP BY post_id HAVING COUNT(*) > 1) d", Integer.class);
+            if (duplicatePosts != null && duplicatePosts > 0) {
+                log.warn("{} hire posts have more than one booking; skipping uk_booking_post", duplicatePosts);
+            } else {
+                jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_booking_post ON booking (post_id)");
+            }
+        } catch (Exception e) {
+            log.error("Error creating booking unique index: {}", e.getMessage());
+        }
+    }
+    
+    private void migrateWorkerNotificationTemplates() {
+        log.info("Migrating worker notifications for shared templates...");
+        
+        try {
+            // Hibernate adds template_id but never relaxes the NOT NULL it created on message
+            jdbcTemplate.execute("ALTER TABLE worker_notification ALTER COLUMN message DROP NOT NULL");
+            
+            log.info("Worker notification template migration completed");
+        } catch (Exception e) {
+            log.error("Error migrating worker notifications for templates: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void migrateHirePostExpiry() {
+        log.info("Migrating hire post status for expiry...");
+        
+        try {
+            // Hibernate generates a check constraint listing the enum values known when the table was created
+            jdbcTemplate.execute("ALTER TABLE hire_post DROP CONSTRAINT IF EXISTS hire_post_status_check");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_status_deadline ON hire_post (status, deadline)");
+            
+            log.info("Hire post expiry migration completed");
+        } catch (Exception e) {
+            log.error("Error migrating hire post status for expiry: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void createHirePostSearchVector() {
+        log.info("Creating hire post search vector...");
+        
+        try {
+            // Generated columns need PostgreSQL 12; a failed ALTER would abort the whole migration transaction
+            Integer serverVersion = jdbcTemplate.queryForObject("SELECT current_setting('server_version_num')::int", Integer.class);
+            if (serverVersion == null || serverVersion < 120000) {
+                log.warn("PostgreSQL {} does not support generated columns; hire post search is unavailable", serverVersion);
+                return;
+            }
+            
+            // Kept up to date by the database on every insert and update of the description or field
+            jdbcTemplate.execute(
+                "ALTER TABLE hire_post ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                "GENERATED ALWAYS AS (to_tsvector('simple', COALESCE(description, '') || ' ' || COALESCE(field, ''))) STORED"
+            );
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_hire_post_search_vector ON hire_post USING GIN (search_vector)");
+            
+            log.info("Hire post search vector is in place");
+        } catch (Exception e) {
+            log.error("Error creating hire post search vector: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void createChatIndexes() {
+        log.info("Creating chat indexes...");
+        
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_messages_room_message ON chat_messages (room_id, message_id)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_rooms_customer_activity ON chat_rooms (customer_id, (COALESCE(last_activity, created_at)) DESC, room_id DESC)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_rooms_worker_activity ON chat_rooms (worker_id, (COALESCE(last_activity, created_at)) DESC, room_id DESC)");
+            
+            log.info("Chat indexes are in place");
+        } catch (Exception e) {
+            log.error("Error creating chat indexes: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void migrateChatReadWatermarks() {
+        log.info("Migrating chat read state to room watermarks...");
+        
+        try {
+            // Rooms that already have a last message were seeded before or written since, so this only runs once.
+            // Each watermark stops just before the participant's first unread message.
+            int updated = jdbcTemplate.update(
+                "UPDATE chat_rooms cr SET last_message_id = s.last_id, " +
+                "customer_last_read_id = COALESCE(s.customer_first_unread - 1, s.last_id), " +
+                "worker_last_read_id = COALESCE(s.worker_first_unread - 1, s.last_id), " +
+                "customer_unread_count = s.customer_unread, worker_unread_count = s.worker_unread " +
+                "FROM (SELECT room_id, MAX(message_id) AS last_id, " +
+                "MIN(message_id) FILTER (WHERE sender_role = 'WORKER' AND is_read = false) AS customer_first_unread, " +
+                "MIN(message_id) FILTER (WHERE sender_role = 'CUSTOMER' AND is_read = false) AS worker_first_unread, " +
+                "COUNT(*) FILTER (WHERE sender_role = 'WORKER' AND is_read = false) AS customer_unread, " +
+                "COUNT(*) FILTER (WHERE sender_role = 'CUSTOMER' AND is_read = false) AS worker_unread " +
+                "FROM chat_messages GROUP BY room_id) s " +
+                "WHERE s.room_id = cr.room_id AND cr.last_message_id IS NULL");
+            
+            log.info("Seeded read watermarks for {} chat rooms", updated);
+        } catch (Exception e) {
+            log.error("Error migrating chat read watermarks: {}", e.getMessage());
+            // Don't throw exception here as it might prevent application startup
+        }
+    }
+    
+    private void createChatRoomUniqueIndex() {
+        log.info("Creating chat room unique index...");
+        
+        // Room resolution upserts on this index, so chat cannot work without it: fail startup rather than skip it
+        try {
+            Integer duplicatePairs = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT 1 FROM chat_rooms GROUP BY customer_id, worker_id HAVING COUNT(*) > 1) d", Integer.class);
+            if (duplicatePairs != null && duplicatePairs > 0) {
+                log.warn("{} customer/worker pairs have more than one chat room; merging them into the first room", duplicatePairs);
+                mergeDuplicateChatRooms();
+            }
+            
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_chat_rooms_customer_worker ON chat_rooms (customer_id, worker_id)");
+            log.info("Chat room unique index is in place");
+        } catch (Exception e) {
+            log.error("Error creating chat room unique index: {}", e.getMessage());
+            throw new RuntimeException("Could not enforce one chat room per customer and worker", e);
+        }
+    }
+    
+    // Each pair keeps its lowest room id. Runs after the watermark seeding, so every room with messages has its watermarks.
+    private void mergeDuplicateChatRooms() {
+        String duplicateRooms =
+            "SELECT room_id, MIN(room_id) OVER (PARTITION BY customer_id, worker_id) AS keep_id, " +
+            "COUNT(*) OVER (PARTITION BY customer_id, worker_id) AS rooms, " +
+            "created_at, last_activity, customer_last_read_id, worker_last_read_id FROM chat_rooms";
+        
+        // Each side's merged watermark stops just before its earliest unread message in any of the pair's rooms
+        jdbcTemplate.update(
+            "UPDATE chat_rooms cr SET created_at = s.created_at, last_activity = s.last_activity, last_message_id = s.last_id, " +
+            "customer_last_read_id = COALESCE(s.customer_first_unread - 1, s.last_id, cr.customer_last_read_id), " +
+            "worker_last_read_id = COALESCE(s.worker_first_unread - 1, s.last_id, cr.worker_last_read_id) " +
+            "FROM (SELECT g.keep_id, MIN(g.created_at) AS created_at, MAX(g.last_activity) AS last_activity, " +
+            "MAX(m.message_id) AS last_id, " +
+            "MIN(m.message_id) FILTER (WHERE m.sender_role = 'WORKER' AND m.message_id > g.customer_last_read_id) AS customer_first_unread, " +
+            "MIN(m.message_id) FILTER (WHERE m.sender_role = 'CUSTOMER' AND m.message_id > g.worker_last_read_id) AS worker_first_unread " +
+            "FROM (" + duplicateRooms + ") g LEFT JOIN chat_messages m ON m.room_id = g.room_id " +
+            "WHERE g.rooms > 1 GROUP BY g.keep_id) s " +
+            "WHERE cr.room_id = s.keep_id");
+        
+        int movedMessages = jdbcTemplate.update(
+            "UPDATE chat_messages m SET room_id = g.keep_id FROM (" + duplicateRooms + ") g " +
+            "WHERE m.room_id = g.room_id AND g.room_id <> g.keep_id");
+        
+        jdbcTemplate.update(
+            "UPDATE chat_rooms cr SET " +
+            "customer_unread_count = (SELECT COUNT(*) FROM chat_messages m WHERE m.room_id = cr.room_id " +
+            "AND m.sender_role = 'WORKER' AND m.message_id > cr.customer_last_read_id), " +
+            "worker_unread_count = (SELECT COUNT(*) FROM chat_messages m WHERE m.room_id = cr.room_id " +
+            "AND m.sender_role = 'CUSTOMER' AND m.message_id > cr.worker_last_read_id) " +
+            "FROM (" + duplicateRooms + ") g WHERE cr.room_id = g.room_id AND g.rooms > 1 AND g.room_id = g.keep_id");
+        
+        int removedRooms = jdbcTemplate.update(
+            "DELETE FROM chat_rooms cr USING (" + duplicateRooms + ") g " +
+            "WHERE cr.room_id = g.room_id AND g.room_id <> g.keep_id");
+        
+        log.info("Merged {} duplicate chat rooms, moving {} messages", removedRooms, movedMessages);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.KajChai.Service;
+
+/**
+ * Great-circle (Haversine) distance math on primitive doubles, shared by every distance calculation.
+ * The batch variants convert each coordinate to radians and take the cosine of each latitude
+ * once, so an M x N matrix costs M + N trigonometric setups instead of 2 x M x N.
+ * A NaN coordinate produces a NaN distance, which sorts after every real distance.
+ */
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Distance in kilometers between two points given in degrees
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        return distance(phi1, Math.toRadians(lon1), Math.cos(phi1), phi2, Math.toRadians(lon2), Math.cos(phi2));
+    }
+
+    /**
+     * Distances in kilometers from one origin to each destination
+     */
+    public static double[] distancesKm(double originLat, double originLon, double[] latitudes, double[] longitudes) {
+        double[][] matrix = matrixKm(new double[] {originLat}, new double[] {originLon}, latitudes, longitudes);
+        return matrix[0];
+    }
+
+    /**
+     * Distances in kilometers from every origin (rows) to every destination (columns)
+     */
+    public static double[][] matrixKm(double[] originLats, double[] originLons,
+                                      double[] destinationLats, double[] destinationLons) {
+        if (originLats.length != originLons.length || destinationLats.length != destinationLons.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays must have the same length");
+        }
+
+        int destinations = destinationLats.length;
+        double[] destPhi = new double[destinations];
+        double[] destLambda = new double[destinations];
+        double[] destCos = new double[destinations];
+        for (int j = 0; j < destinations; j++) {
+            destPhi[j] = Math.toRadians(destinationLats[j]);
+            destLambda[j] = Math.toRadians(destinationLons[j]);
+            destCos[j] = Math.cos(destPhi[j]);
+        }
+
+        double[][] matrix = new double[originLats.length][destinations];
+        for (int i = 0; i < originLats.length; i++) {
+            double phi = Math.toRadians(originLats[i]);
+            double lambda = Math.toRadians(originLons[i]);
+            double cos = Math.cos(phi);
+            double[] row = matrix[i];
+            for (int j = 0; j < destinations; j++) {
+                row[j] = distance(phi, lambda, cos, destPhi[j], destLambda[j], destCos[j]);
+            }
+        }
+        return matrix;
+    }
+
+    private static double distance(double phi1, double lambda1, double cosPhi1,
+                                   double phi2, double lambda2, double cosPhi2) {
+        double sinHalfDPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDLambda = Math.sin((lambda2 - lambda1) / 2);
+        double a = sinHalfDPhi * sinHalfDPhi + cosPhi1 * cosPhi2 * sinHalfDLambda * sinHalfDLambda;
+        // Rounding can push a marginally above 1 for antipodal points
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+}
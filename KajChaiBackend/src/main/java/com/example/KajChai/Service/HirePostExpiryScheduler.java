@@ -0,0 +1,201 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DTO.HirePostDelta;
+import com.example.KajChai.DatabaseEntity.HirePost;
+import com.example.KajChai.Enum.HirePostStatus;
+import com.example.KajChai.Enum.NotificationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Moves AVAILABLE hire posts to EXPIRED once their deadline day has passed.
+ * The posts expiring soonest are held in a priority queue ordered by deadline, loaded through the
+ * (status, deadline) index and topped up as posts are created or edited. Each tick pops every
+ * due post and expires them with one UPDATE, then notifies their customers with one batch insert
+ * in the same transaction; feed deltas go out only once that has committed.
+ * The UPDATE re-checks status and deadline, so stale queue entries are harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HirePostExpiryScheduler implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderCounterService reminderCounterService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Only posts whose deadline falls before today + horizon are queued
+    @Value("${app.hirepost.expiry.horizon-days:2}")
+    private int horizonDays;
+
+    @Value("${app.hirepost.expiry.max-queued:10000}")
+    private int maxQueued;
+
+    private final PriorityQueue<Expiry> queue = new PriorityQueue<>(
+        Comparator.comparing((Expiry e) -> e.deadline).thenComparing(e -> e.postId));
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Overdue posts are expired by the first tick, after the status migration has run
+        reload();
+    }
+
+    /**
+     * Queue a post created or edited with a deadline inside the horizon
+     */
+    public void track(HirePost post) {
+        if (post.getPostId() == null || post.getDeadline() == null || post.getStatus() != HirePostStatus.AVAILABLE) {
+            return;
+        }
+        if (post.getDeadline().isBefore(horizonEnd())) {
+            synchronized (queue) {
+                queue.add(new Expiry(post.getPostId(), post.getDeadline()));
+            }
+        }
+    }
+
+    /**
+     * Refill the queue from the database; picks up anything that was not tracked
+     */
+    @Scheduled(fixedRate = 3600000, initialDelay = 3600000) // Run hourly
+    public void reload() {
+        try {
+            List<Expiry> upcoming = jdbcTemplate.query(
+                "SELECT post_id, deadline FROM hire_post WHERE status = 'AVAILABLE' AND deadline < ? " +
+                "ORDER BY deadline, post_id LIMIT ?",
+                (rs, rowNum) -> new Expiry(rs.getInt("post_id"), rs.getDate("deadline").toLocalDate()),
+                Date.valueOf(horizonEnd()), maxQueued);
+
+            synchronized (queue) {
+                queue.clear();
+                queue.addAll(upcoming);
+            }
+            log.debug("Hire post expiry queue loaded with {} posts", upcoming.size());
+        } catch (Exception e) {
+            log.error("Failed to load hire post expiry queue", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000) // Run every minute
+    public void expireDuePosts() {
+        LocalDate today = LocalDate.now();
+        List<Integer> duePostIds = new ArrayList<>();
+        synchronized (queue) {
+            while (!queue.isEmpty() && queue.peek().deadline.isBefore(today)) {
+                duePostIds.add(queue.poll().postId);
+            }
+        }
+        if (duePostIds.isEmpty()) {
+            return;
+        }
+
+        List<ExpiredPost> expired;
+        try {
+            String placeholders = duePostIds.stream().map(id -> "?").collect(Collectors.joining(", "));
+            List<Object> params = new ArrayList<>(duePostIds);
+            params.add(Date.valueOf(today));
+
+            // The expiry and its notifications commit together or not at all
+            expired = transactionTemplate.execute(status -> {
+                List<ExpiredPost> rows = jdbcTemplate.query(
+                    "UPDATE hire_post hp SET status = 'EXPIRED', version = hp.version + 1 FROM customer c " +
+                    "WHERE c.customer_id = hp.customer_id AND hp.post_id IN (" + placeholders + ") " +
+                    "AND hp.status = 'AVAILABLE' AND hp.deadline < ? " +
+                    "RETURNING hp.post_id, hp.customer_id, hp.field, hp.description, c.district",
+                    (rs, rowNum) -> new ExpiredPost(rs.getInt("post_id"), rs.getInt("customer_id"),
+                        rs.getString("field"), rs.getString("description"), rs.getString("district")),
+                    params.toArray());
+                notifyCustomers(rows);
+                return rows;
+            });
+        } catch (Exception e) {
+            // Rolled back, so the posts are still AVAILABLE; the next reload queues them again
+            log.error("Failed to expire hire posts {}", duePostIds, e);
+            return;
+        }
+
+        // Only committed expiries reach counters, the match engine and the worker feeds
+        for (ExpiredPost post : expired) {
+            reminderCounterService.invalidateCustomer(post.customerId);
+            eventPublisher.publishEvent(HirePostDelta.builder()
+                .type(HirePostDelta.Type.REMOVED)
+                .postId(post.postId)
+                .field(post.field)
+                .district(post.district)
+                .status(HirePostStatus.EXPIRED)
+                .description(HirePostDelta.preview(post.description))
+                .build());
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Expired {} hire posts past their deadline", expired.size());
+        }
+    }
+
+    private void notifyCustomers(List<ExpiredPost> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO customer_notification (customer_id, message, status, notification_time) VALUES (?, ?, ?, ?)",
+            expired, expired.size(), (ps, post) -> {
+                ps.setInt(1, post.customerId);
+                ps.setString(2, String.format(
+                    "Your %s job post \"%s\" has expired because its deadline has passed.",
+                    post.field,
+                    post.description.length() > 50 ? post.description.substring(0, 50) + "..." : post.description));
+                ps.setString(3, NotificationStatus.UNREAD.name());
+                ps.setTimestamp(4, now);
+            });
+    }
+
+    private LocalDate horizonEnd() {
+        return LocalDate.now().plusDays(horizonDays);
+    }
+
+    private static final class Expiry {
+        private final int postId;
+        private final LocalDate deadline;
+
+        private Expiry(int postId, LocalDate deadline) {
+            this.postId = postId;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class ExpiredPost {
+        private final int postId;
+        private final int customerId;
+        private final String field;
+        private final String description;
+        private final String district;
+
+        private ExpiredPost(int postId, int customerId, String field, String description, String district) {
+            this.postId = postId;
+            this.customerId = customerId;
+            this.field = field;
+            this.description = description;
+            this.district = district;
+        }
+    }
+}
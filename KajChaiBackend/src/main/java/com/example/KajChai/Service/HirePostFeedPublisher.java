@@ -0,0 +1,48 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DTO.HirePostDelta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+
+/**
+ * Pushes hire post deltas to workers over STOMP once the change that produced them has committed.
+ * Each delta goes to /topic/hireposts/{field} and, when the customer has a district,
+ * /topic/hireposts/{field}/{district}; both segments are lowercased with non-alphanumerics as '-'.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HirePostFeedPublisher {
+
+    private static final String TOPIC_PREFIX = "/topic/hireposts/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    // Deltas published outside a transaction are sent immediately
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHirePostDelta(HirePostDelta delta) {
+        if (delta.getField() == null || delta.getField().isBlank()) {
+            return;
+        }
+
+        try {
+            String fieldDestination = TOPIC_PREFIX + topicSegment(delta.getField());
+            messagingTemplate.convertAndSend(fieldDestination, delta);
+            if (delta.getDistrict() != null && !delta.getDistrict().isBlank()) {
+                messagingTemplate.convertAndSend(fieldDestination + "/" + topicSegment(delta.getDistrict()), delta);
+            }
+        } catch (Exception e) {
+            // Clients recover from a missed delta on their next feed load
+            log.warn("Failed to publish {} delta for hire post {}: {}", delta.getType(), delta.getPostId(), e.getMessage());
+        }
+    }
+
+    public static String topicSegment(String value) {
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    }
+}
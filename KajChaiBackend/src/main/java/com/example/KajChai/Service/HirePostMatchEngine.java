@@ -0,0 +1,448 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DTO.HirePostDelta;
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.DatabaseEntity.WorkerStats;
+import com.example.KajChai.Repository.WorkerStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Ranks available hire posts for a worker and keeps the ranking ready between requests.
+ * Only posts in the worker's own field are ranked, since applying to any other post is refused.
+ * A post's score is a weighted sum of distance to the customer, freshness, deadline urgency (boosted
+ * for workers who finish what they take on) and how many jobs the customer has completed before.
+ * Features of every available post are held in memory; each worker gets a top-K list scored as of
+ * the moment it was built, which new, edited and removed posts update in place. Lists are rebuilt
+ * when the worker moves or changes field, or once they are old enough for freshness and urgency to
+ * have drifted. Pages beyond a non-exhaustive list are scored on demand. Scoring runs outside the
+ * lock on a snapshot of the worker's field, so one worker's deep page never holds up the others.
+ */
+@Component
+@Slf4j
+public class HirePostMatchEngine implements ApplicationRunner {
+
+    private static final double DISTANCE_WEIGHT = 0.25;
+    private static final double FRESHNESS_WEIGHT = 0.15;
+    private static final double URGENCY_WEIGHT = 0.10;
+    private static final double CUSTOMER_WEIGHT = 0.10;
+
+    // Distance at which the distance score halves
+    private static final double DISTANCE_HALF_KM = 10.0;
+    // Age at which the freshness score falls to 1/e
+    private static final double FRESHNESS_DECAY_HOURS = 48.0;
+    // Completed jobs at which a customer's history counts in full
+    private static final double CUSTOMER_HISTORY_FULL = 20.0;
+
+    private static final String SELECT_AVAILABLE_POSTS =
+        "SELECT hp.post_id, hp.field, hp.deadline, hp.post_time, c.latitude, c.longitude, " +
+        "COALESCE(done.completed, 0) AS completed " +
+        "FROM hire_post hp JOIN customer c ON c.customer_id = hp.customer_id " +
+        "LEFT JOIN (SELECT customer_id, COUNT(*) AS completed FROM hire_post " +
+        "WHERE status = 'COMPLETED' GROUP BY customer_id) done ON done.customer_id = hp.customer_id " +
+        "WHERE hp.status = 'AVAILABLE'";
+
+    private static final RowMapper<PostFeatures> POST_FEATURES = (rs, rowNum) -> {
+        Date deadline = rs.getDate("deadline");
+        Timestamp postTime = rs.getTimestamp("post_time");
+        return new PostFeatures(rs.getInt("post_id"),
+            WorkerLocationIndex.fieldKey(rs.getString("field")),
+            deadline != null ? deadline.toLocalDate() : null,
+            postTime != null ? postTime.toLocalDateTime() : null,
+            rs.getObject("latitude") != null ? rs.getDouble("latitude") : Double.NaN,
+            rs.getObject("longitude") != null ? rs.getDouble("longitude") : Double.NaN,
+            rs.getLong("completed"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WorkerStatsRepository workerStatsRepository;
+    private final int topK;
+    private final Duration maxListAge;
+
+    private final Map<Integer, PostFeatures> posts = new HashMap<>();
+    private final Map<Integer, MatchList> lists;
+    // Bumped on every change to posts, so a list scored from an older snapshot is not cached
+    private long postsVersion;
+
+    public HirePostMatchEngine(JdbcTemplate jdbcTemplate,
+                               WorkerStatsRepository workerStatsRepository,
+                               @Value("${app.recommendations.matching.top-k:200}") int topK,
+                               @Value("${app.recommendations.matching.max-lists:5000}") int maxLists,
+                               @Value("${app.recommendations.matching.max-list-age-minutes:15}") long maxListAgeMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.workerStatsRepository = workerStatsRepository;
+        this.topK = topK;
+        this.maxListAge = Duration.ofMinutes(maxListAgeMinutes);
+        this.lists = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, MatchList> eldest) {
+                return size() > maxLists;
+            }
+        };
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * Reload post features from the database and drop every list, correcting any missed update
+     */
+    @Scheduled(fixedRate = 3600000, initialDelay = 3600000) // Run hourly
+    public void reload() {
+        try {
+            List<PostFeatures> available = jdbcTemplate.query(SELECT_AVAILABLE_POSTS, POST_FEATURES);
+
+            synchronized (this) {
+                posts.clear();
+                for (PostFeatures post : available) {
+                    posts.put(post.postId, post);
+                }
+                lists.clear();
+                postsVersion++;
+            }
+            log.info("Match engine loaded {} available hire posts", available.size());
+        } catch (Exception e) {
+            log.error("Failed to load hire posts into the match engine", e);
+        }
+    }
+
+    /**
+     * Best-matching posts for the worker after the (afterScore, afterPostId) position,
+     * ordered by score descending then post id ascending
+     */
+    public List<Match> recommend(Worker worker, double afterScore, int afterPostId, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        MatchList list;
+        synchronized (this) {
+            list = lists.get(worker.getWorkerId());
+        }
+        if (list == null || !list.matches(worker) || list.scoredAt.plus(maxListAge).isBefore(LocalDateTime.now())) {
+            // Booking history is read and the posts scored outside the lock so other workers' feeds are not held up
+            MatchList template = new MatchList(worker, completionRate(worker.getWorkerId()), LocalDateTime.now(), topK);
+            List<PostFeatures> snapshot;
+            long version;
+            synchronized (this) {
+                snapshot = postsInField(template.fieldKey);
+                version = postsVersion;
+            }
+            MatchList built = score(template, snapshot, topK);
+            synchronized (this) {
+                // A delta that landed while scoring is missing from the new list; serve it once, rebuild next time
+                if (version == postsVersion) {
+                    lists.put(worker.getWorkerId(), built);
+                }
+            }
+            list = built;
+        }
+
+        List<PostFeatures> snapshot;
+        synchronized (this) {
+            int start = list.positionAfter(afterScore, afterPostId);
+            if (start + limit <= list.size || list.exhaustive) {
+                return page(list, start, limit);
+            }
+            // Past the list, the order of uncached posts is unknown until they are scored
+            snapshot = postsInField(list.fieldKey);
+        }
+        MatchList full = score(list, snapshot, snapshot.size());
+        return page(full, full.positionAfter(afterScore, afterPostId), limit);
+    }
+
+    private static List<Match> page(MatchList list, int start, int limit) {
+        List<Match> page = new ArrayList<>(limit);
+        for (int i = start; i < Math.min(start + limit, list.size); i++) {
+            page.add(new Match(list.postIds[i], list.scores[i]));
+        }
+        return page;
+    }
+
+    // Caller holds the lock; the features themselves are immutable, so the copy can be scored without it
+    private List<PostFeatures> postsInField(String fieldKey) {
+        List<PostFeatures> inField = new ArrayList<>();
+        for (PostFeatures post : posts.values()) {
+            // A worker can only apply to posts in their own field
+            if (post.fieldKey.equals(fieldKey)) {
+                inField.add(post);
+            }
+        }
+        return inField;
+    }
+
+    /**
+     * Keep posts and lists in step with creations, edits, bookings, deletions and expiries
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHirePostDelta(HirePostDelta delta) {
+        try {
+            if (delta.getType() == HirePostDelta.Type.REMOVED) {
+                removePost(delta.getPostId());
+            } else if (delta.getPostId() != null) {
+                upsertPost(delta.getPostId());
+            }
+        } catch (Exception e) {
+            // The hourly reload repairs anything missed here
+            log.warn("Failed to apply {} delta for hire post {} to the match engine: {}",
+                delta.getType(), delta.getPostId(), e.getMessage());
+        }
+    }
+
+    // The delta only names the post, so its features are read back as committed
+    private void upsertPost(Integer postId) {
+        List<PostFeatures> rows = jdbcTemplate.query(SELECT_AVAILABLE_POSTS + " AND hp.post_id = ?", POST_FEATURES, postId);
+        if (rows.isEmpty()) {
+            // No longer available, e.g. booked by the edit that produced the delta
+            removePost(postId);
+            return;
+        }
+        PostFeatures post = rows.get(0);
+
+        synchronized (this) {
+            posts.put(post.postId, post);
+            postsVersion++;
+            for (MatchList list : lists.values()) {
+                list.remove(post.postId);
+                if (list.fieldKey.equals(post.fieldKey)) {
+                    list.insert(post.postId, list.score(post), topK);
+                }
+            }
+        }
+    }
+
+    private synchronized void removePost(Integer postId) {
+        if (postId == null) {
+            return;
+        }
+        posts.remove(postId);
+        postsVersion++;
+        for (MatchList list : lists.values()) {
+            list.remove(postId);
+        }
+    }
+
+    // Completed over all bookings, where every booking is either still active or completed
+    private double completionRate(Integer workerId) {
+        WorkerStats stats = workerStatsRepository.findById(workerId).orElse(null);
+        long booked = stats == null ? 0 : stats.getJobsCompleted() + stats.getActiveJobs();
+        // Workers with no bookings yet are treated as neutral rather than unreliable
+        return booked == 0 ? 0.5 : (double) stats.getJobsCompleted() / booked;
+    }
+
+    // Scores a snapshot of the posts in the template worker's field and keeps the best `capacity`
+    private static MatchList score(MatchList template, List<PostFeatures> snapshot, int capacity) {
+        int count = snapshot.size();
+        int[] ids = new int[count];
+        double[] values = new double[count];
+        for (int j = 0; j < count; j++) {
+            PostFeatures post = snapshot.get(j);
+            ids[j] = post.postId;
+            values[j] = template.score(post);
+        }
+
+        Integer[] order = new Integer[count];
+        for (int j = 0; j < count; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int byScore = Double.compare(values[b], values[a]);
+            return byScore != 0 ? byScore : Integer.compare(ids[a], ids[b]);
+        });
+
+        int size = Math.min(capacity, count);
+        MatchList list = new MatchList(template, Math.max(size, 1));
+        for (int j = 0; j < size; j++) {
+            list.postIds[j] = ids[order[j]];
+            list.scores[j] = values[order[j]];
+        }
+        list.size = size;
+        // Holding every available post in the field means later posts can be placed anywhere, including the end
+        list.exhaustive = count <= capacity;
+        return list;
+    }
+
+    public static final class Match {
+        private final int postId;
+        private final double score;
+
+        private Match(int postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        public int getPostId() {
+            return postId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final class PostFeatures {
+        private final int postId;
+        private final String fieldKey;
+        private final LocalDate deadline;
+        private final LocalDateTime postTime;
+        private final double latitude;
+        private final double longitude;
+        private final long customerCompletedJobs;
+
+        private PostFeatures(int postId, String fieldKey, LocalDate deadline, LocalDateTime postTime,
+                             double latitude, double longitude, long customerCompletedJobs) {
+            this.postId = postId;
+            this.fieldKey = fieldKey;
+            this.deadline = deadline;
+            this.postTime = postTime;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.customerCompletedJobs = customerCompletedJobs;
+        }
+    }
+
+    /**
+     * One worker's posts, best first, in parallel primitive arrays, scored as of scoredAt
+     */
+    private static final class MatchList {
+        private final String fieldKey;
+        private final Double latitude;
+        private final Double longitude;
+        private final double completionRate;
+        private final LocalDateTime scoredAt;
+        private int[] postIds;
+        private double[] scores;
+        private int size;
+        private boolean exhaustive;
+
+        private MatchList(Worker worker, double completionRate, LocalDateTime scoredAt, int capacity) {
+            this.fieldKey = WorkerLocationIndex.fieldKey(worker.getField());
+            this.latitude = worker.getLatitude();
+            this.longitude = worker.getLongitude();
+            this.completionRate = completionRate;
+            this.scoredAt = scoredAt;
+            this.postIds = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        private MatchList(MatchList template, int capacity) {
+            this.fieldKey = template.fieldKey;
+            this.latitude = template.latitude;
+            this.longitude = template.longitude;
+            this.completionRate = template.completionRate;
+            this.scoredAt = template.scoredAt;
+            this.postIds = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        private boolean matches(Worker worker) {
+            return fieldKey.equals(WorkerLocationIndex.fieldKey(worker.getField()))
+                && Objects.equals(latitude, worker.getLatitude())
+                && Objects.equals(longitude, worker.getLongitude());
+        }
+
+        private double score(PostFeatures post) {
+            // Every ranked post is in the worker's field, so field match adds nothing to tell them apart
+            double score = 0.0;
+
+            // NaN post coordinates give a NaN distance, which earns no distance score
+            if (latitude != null && longitude != null) {
+                double distance = GeoDistance.haversineKm(latitude.doubleValue(), longitude.doubleValue(),
+                    post.latitude, post.longitude);
+                if (!Double.isNaN(distance)) {
+                    score += DISTANCE_WEIGHT * DISTANCE_HALF_KM / (DISTANCE_HALF_KM + distance);
+                }
+            }
+
+            if (post.postTime != null) {
+                double ageHours = Math.max(0, ChronoUnit.MINUTES.between(post.postTime, scoredAt) / 60.0);
+                score += FRESHNESS_WEIGHT * Math.exp(-ageHours / FRESHNESS_DECAY_HOURS);
+            }
+
+            if (post.deadline != null) {
+                long daysLeft = Math.max(0, ChronoUnit.DAYS.between(scoredAt.toLocalDate(), post.deadline));
+                // Urgent jobs lean towards workers who complete what they are booked for
+                score += URGENCY_WEIGHT * (0.5 + 0.5 * completionRate) / (1.0 + daysLeft);
+            }
+
+            score += CUSTOMER_WEIGHT * Math.min(1.0, Math.log1p(post.customerCompletedJobs) / Math.log1p(CUSTOMER_HISTORY_FULL));
+            return score;
+        }
+
+        // Index of the first entry ordered after (score, postId); 0 for the start of the feed
+        private int positionAfter(double afterScore, int afterPostId) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (before(scores[mid], postIds[mid], afterScore, afterPostId) || (scores[mid] == afterScore && postIds[mid] == afterPostId)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void remove(int postId) {
+            for (int i = 0; i < size; i++) {
+                if (postIds[i] == postId) {
+                    System.arraycopy(postIds, i + 1, postIds, i, size - i - 1);
+                    System.arraycopy(scores, i + 1, scores, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private void insert(int postId, double score, int capacity) {
+            int position = positionAfter(score, postId);
+            // Past the end of a non-exhaustive list the post's rank is unknown relative to uncached posts
+            if (position == size && !exhaustive) {
+                return;
+            }
+
+            if (size == postIds.length) {
+                postIds = Arrays.copyOf(postIds, size + 1);
+                scores = Arrays.copyOf(scores, size + 1);
+            }
+            System.arraycopy(postIds, position, postIds, position + 1, size - position);
+            System.arraycopy(scores, position, scores, position + 1, size - position);
+            postIds[position] = postId;
+            scores[position] = score;
+            size++;
+
+            if (size > capacity) {
+                size = capacity;
+                exhaustive = false;
+            }
+        }
+
+        private static boolean before(double score, int postId, double otherScore, int otherPostId) {
+            return score > otherScore || (score == otherScore && postId < otherPostId);
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.example.KajChai.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.KajChai.DTO.CustomerDashboardStatsResponse;
 import com.example.KajChai.DTO.HirePostCreateRequest;
+import com.example.KajChai.DTO.HirePostDelta;
+import com.example.KajChai.DTO.HirePostPageResponse;
 import com.example.KajChai.DTO.HirePostResponse;
 import com.example.KajChai.DTO.HirePostUpdateRequest;
 import com.example.KajChai.DTO.WorkerApplicationResponse;
@@ -18,13 +33,14 @@ import com.example.KajChai.DatabaseEntity.Customer;
 import com.example.KajChai.DatabaseEntity.HirePost;
 import com.example.KajChai.DatabaseEntity.PostApplicationMapping;
 import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.DatabaseEntity.WorkerStats;
 import com.example.KajChai.Enum.HirePostStatus;
 import com.example.KajChai.Repository.BookingRepository;
 import com.example.KajChai.Repository.CustomerRepository;
 import com.example.KajChai.Repository.HirePostRepository;
 import com.example.KajChai.Repository.PostApplicationMappingRepository;
-import com.example.KajChai.Repository.ReviewRepository;
 import com.example.KajChai.Repository.WorkerRepository;
+import com.example.KajChai.Repository.WorkerStatsRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,10 +53,24 @@ public class HirePostService {
     private final HirePostRepository hirePostRepository;
     private final PostApplicationMappingRepository applicationRepository;
     private final NotificationService notificationService;
-    private final ReviewRepository reviewRepository;
     private final CustomerRepository customerRepository;
     private final WorkerRepository workerRepository;
     private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HirePostExpiryScheduler expiryScheduler;
+    private final HirePostMatchEngine matchEngine;
+    private final ReminderCounterService reminderCounterService;
+    private final WorkerStatsRepository workerStatsRepository;
+    
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final double DEFAULT_NEARBY_RADIUS_KM = 10.0;
+    private static final double MAX_NEARBY_RADIUS_KM = 100.0;
+    private static final int MAX_SEARCH_TERMS = 8;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    
+    // Keyset start for newest-first feeds: later than any real post
+    private static final LocalDateTime FEED_START_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
     
     @Transactional
     public HirePostResponse createHirePost(HirePostCreateRequest request, Integer customerId) {
@@ -58,31 +88,85 @@ public class HirePostService {
                 .build();
         
         HirePost savedPost = hirePostRepository.save(hirePost);
-        return convertToResponse(savedPost);
+        HirePostResponse response = convertToResponse(savedPost);
+        publishDelta(HirePostDelta.Type.CREATED, savedPost);
+        expiryScheduler.track(savedPost);
+        return response;
     }
     
-    public List<HirePostResponse> getHirePostsByCustomer(Integer customerId) {
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found"));
+    /**
+     * Page of a customer's posts, newest first. Pages are keyed on (postTime, postId).
+     */
+    public HirePostPageResponse getHirePostsByCustomerPage(Integer customerId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Object[] after = decodeFeedCursor(cursor);
+        
+        List<HirePost> rows = hirePostRepository.findByCustomerPage(
+                customerId, (LocalDateTime) after[0], (Integer) after[1], PageRequest.of(0, pageSize + 1));
+        return toFeedPage(rows, pageSize);
+    }
+    
+    /**
+     * Page of available posts, optionally for one field, newest first. Pages are keyed on (postTime, postId).
+     */
+    // Dashboard counts for one customer, computed in a single aggregate query
+    public CustomerDashboardStatsResponse getCustomerDashboardStats(Integer customerId) {
+        Object[] row = hirePostRepository.findDashboardStatsByCustomer(customerId).get(0);
+        return CustomerDashboardStatsResponse.builder()
+                .activeHirePosts(((Number) row[0]).longValue())
+                .expiredHirePosts(((Number) row[1]).longValue())
+                .completedJobs(((Number) row[2]).longValue())
+                .totalSpent(((Number) row[3]).doubleValue())
+                .build();
+    }
+    
+    public HirePostPageResponse getAvailableHirePostsPage(String field, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Object[] after = decodeFeedCursor(cursor);
+        
+        // Fetch one extra row to know whether another page exists
+        List<HirePost> rows = field != null && !field.trim().isEmpty()
+                ? hirePostRepository.findAvailablePostsByFieldPage(field.trim(),
+                        (LocalDateTime) after[0], (Integer) after[1], PageRequest.of(0, pageSize + 1))
+                : hirePostRepository.findAvailablePostsPage(
+                        (LocalDateTime) after[0], (Integer) after[1], PageRequest.of(0, pageSize + 1));
+        return toFeedPage(rows, pageSize);
+    }
+    
+    private HirePostPageResponse toFeedPage(List<HirePost> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
         
-        List<HirePost> posts = hirePostRepository.findByCustomerOrderByPostTimeDesc(customer);
-        return posts.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            HirePost last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getPostTime() + "|" + last.getPostId());
+        }
+        
+        return HirePostPageResponse.builder()
+                .posts(rows.stream().map(this::convertToResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
     
-    public List<HirePostResponse> getAvailableHirePostsByField(String field) {
-        List<HirePost> posts = hirePostRepository.findAvailablePostsByField(field);
-        return posts.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // (afterTime, afterPostId) for a feed cursor, or the feed start when there is none
+    private Object[] decodeFeedCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Object[] {FEED_START_TIME, Integer.MAX_VALUE};
+        }
+        String[] parts = decodeCursor(cursor);
+        try {
+            return new Object[] {LocalDateTime.parse(parts[0]), Integer.parseInt(parts[1])};
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
     
-    public List<HirePostResponse> getAllAvailableHirePosts() {
-        List<HirePost> posts = hirePostRepository.findAllAvailablePosts();
-        return posts.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    private int resolvePageSize(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
     }
     
     public HirePostResponse getHirePostById(Integer postId) {
@@ -101,10 +185,14 @@ public class HirePostService {
             throw new RuntimeException("Unauthorized to update this post");
         }
         
-        // Only allow updates if post is still available
-        if (post.getStatus() != HirePostStatus.AVAILABLE) {
+        // Available posts can be edited; an expired post is re-opened by moving its deadline to today or later
+        boolean reopening = post.getStatus() == HirePostStatus.EXPIRED;
+        if (post.getStatus() != HirePostStatus.AVAILABLE && !reopening) {
             throw new RuntimeException("Cannot update post that is not available");
         }
+        if (reopening && (request.getDeadline() == null || request.getDeadline().isBefore(LocalDate.now()))) {
+            throw new RuntimeException("Set a deadline of today or later to re-open an expired post");
+        }
         
         if (request.getDescription() != null) {
             post.setDescription(request.getDescription());
@@ -115,9 +203,16 @@ public class HirePostService {
         if (request.getDeadline() != null) {
             post.setDeadline(request.getDeadline());
         }
+        if (reopening) {
+            post.setStatus(HirePostStatus.AVAILABLE);
+        }
         
         HirePost updatedPost = hirePostRepository.save(post);
-        return convertToResponse(updatedPost);
+        HirePostResponse response = convertToResponse(updatedPost);
+        // A re-opened post comes back into the worker feeds as a new one
+        publishDelta(reopening ? HirePostDelta.Type.CREATED : HirePostDelta.Type.UPDATED, updatedPost);
+        expiryScheduler.track(updatedPost);
+        return response;
     }
     
     @Transactional
@@ -130,12 +225,16 @@ public class HirePostService {
             throw new RuntimeException("Unauthorized to delete this post");
         }
         
-        // Only allow deletion if post is still available
-        if (post.getStatus() != HirePostStatus.AVAILABLE) {
+        // Only allow deletion if post is still available or has expired unbooked
+        if (post.getStatus() != HirePostStatus.AVAILABLE && post.getStatus() != HirePostStatus.EXPIRED) {
             throw new RuntimeException("Cannot delete post that is not available");
         }
         
         hirePostRepository.delete(post);
+        // Expired posts already left the feeds when they expired
+        if (post.getStatus() == HirePostStatus.AVAILABLE) {
+            publishDelta(HirePostDelta.Type.REMOVED, post);
+        }
     }
     
     @Transactional
@@ -196,18 +295,11 @@ public class HirePostService {
             throw new RuntimeException("Worker field does not match the post requirements");
         }
         
-        // Check if worker has already applied
-        if (applicationRepository.existsByWorkerAndHirePost(worker, post)) {
+        // Create application; the unique (worker, post) index makes concurrent duplicates a no-op
+        if (applicationRepository.insertIfAbsent(worker.getWorkerId(), post.getPostId(), LocalDateTime.now()) == 0) {
             throw new RuntimeException("Worker has already applied to this post");
         }
-        
-        // Create application
-        PostApplicationMapping application = PostApplicationMapping.builder()
-                .worker(worker)
-                .hirePost(post)
-                .build();
-        
-        applicationRepository.save(application);
+        hirePostRepository.incrementApplicationsCount(post.getPostId());
         
         // Create notification for customer
         String notificationMessage = String.format(
@@ -222,7 +314,11 @@ public class HirePostService {
         notificationService.createCustomerNotification(post.getCustomer(), notificationMessage);
     }
     
-    public List<WorkerApplicationResponse> getApplicationsForPost(Integer postId, Integer customerId) {
+    /**
+     * Applicants of a post with their review stats and rank, in one query regardless of applicant count.
+     * sort: "rank" for best-ranked first, otherwise in order of application.
+     */
+    public List<WorkerApplicationResponse> getApplicationsForPost(Integer postId, Integer customerId, String sort) {
         HirePost post = hirePostRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Hire post not found"));
         
@@ -235,10 +331,19 @@ public class HirePostService {
         Optional<Booking> booking = bookingRepository.findByHirePost(post);
         Integer selectedWorkerId = booking.map(b -> b.getWorker().getWorkerId()).orElse(null);
         
-        List<PostApplicationMapping> applications = applicationRepository.findByHirePost(post);
-        return applications.stream()
-                .map(app -> convertToWorkerApplicationResponse(app, selectedWorkerId))
-                .collect(Collectors.toList());
+        List<Object[]> rows = applicationRepository.findRankedApplicationsWithStats(postId);
+        List<WorkerApplicationResponse> applications = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            applications.add(convertToWorkerApplicationResponse((PostApplicationMapping) row[0], (WorkerStats) row[1],
+                    ((Number) row[2]).doubleValue(), i + 1, selectedWorkerId));
+        }
+        
+        if (!"rank".equalsIgnoreCase(sort)) {
+            applications.sort(Comparator.comparing(WorkerApplicationResponse::getApplicationTime,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        return applications;
     }
     
     @Transactional
@@ -266,42 +371,26 @@ public class HirePostService {
             throw new RuntimeException("Worker has not applied to this post");
         }
         
-        // Update post status to BOOKED 
-        post.setStatus(HirePostStatus.BOOKED);
-        hirePostRepository.save(post);
-        
-        // Create booking entry
-        Booking booking = Booking.builder()
-                .hirePost(post)
-                .worker(selectedWorker)
-                .build();
-        bookingRepository.save(booking);
-        
-        // Get all applicants for this post
-        List<PostApplicationMapping> allApplications = applicationRepository.findByHirePost(post);
+        // Create booking entry; the unique post index lets only one concurrent selection through
+        if (bookingRepository.insertIfAbsent(post.getPostId(), selectedWorker.getWorkerId(), LocalDateTime.now()) == 0) {
+            throw new RuntimeException("This post is no longer available");
+        }
+        workerStatsRepository.recordBooking(selectedWorker.getWorkerId(), LocalDateTime.now());
         
-        // Send notifications to all applicants
-        for (PostApplicationMapping app : allApplications) {
-            Worker applicantWorker = app.getWorker();
-            String notificationMessage;
-            
-            if (applicantWorker.getWorkerId().equals(workerId)) {
-                // Selected worker gets acceptance notification
-                notificationMessage = String.format(
-                    "Congratulations! You have been selected for the job: %s. The customer will contact you soon.",
-                    post.getDescription().length() > 50 ? post.getDescription().substring(0, 50) + "..." : post.getDescription()
-                );
-            } else {
-                // Rejected workers get rejection notification
-                notificationMessage = String.format(
-                    "Thank you for applying to the job: %s. Unfortunately, another worker has been selected for this position.",
-                    post.getDescription().length() > 50 ? post.getDescription().substring(0, 50) + "..." : post.getDescription()
-                );
-            }
-            
-            // Create notification
-            notificationService.createWorkerNotification(applicantWorker, notificationMessage);
+        // Update post status to BOOKED, failing if the post changed since it was read
+        post.setStatus(HirePostStatus.BOOKED);
+        try {
+            hirePostRepository.saveAndFlush(post);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new RuntimeException("This post was changed by another request, please refresh and try again");
         }
+        publishDelta(HirePostDelta.Type.REMOVED, post);
+        reminderCounterService.invalidateCustomer(customerId);
+        reminderCounterService.invalidateWorker(workerId);
+        
+        // Applicants are notified in bulk after this transaction commits
+        eventPublisher.publishEvent(new WorkerSelectionFanout.WorkerSelected(postId, workerId,
+                post.getDescription().length() > 50 ? post.getDescription().substring(0, 50) + "..." : post.getDescription()));
     }
     
     @Transactional
@@ -328,11 +417,14 @@ public class HirePostService {
         post.setStatus(HirePostStatus.COMPLETED);
         post.setPayment(paymentAmount);
         hirePostRepository.save(post);
+        reminderCounterService.invalidateCustomer(customerId);
         
         // Find the booked worker and send completion notification
         Optional<Booking> booking = bookingRepository.findByHirePost(post);
         if (booking.isPresent()) {
             Worker selectedWorker = booking.get().getWorker();
+            workerStatsRepository.recordCompletion(selectedWorker.getWorkerId(), paymentAmount, LocalDateTime.now());
+            reminderCounterService.invalidateWorker(selectedWorker.getWorkerId());
             Customer customer = post.getCustomer();
             
             // Create notification message for the worker
@@ -350,9 +442,20 @@ public class HirePostService {
         }
     }
     
+    // Delivered to subscribed workers only after the surrounding transaction commits
+    private void publishDelta(HirePostDelta.Type type, HirePost post) {
+        eventPublisher.publishEvent(HirePostDelta.builder()
+                .type(type)
+                .postId(post.getPostId())
+                .field(post.getField())
+                .district(post.getCustomer().getDistrict())
+                .status(post.getStatus())
+                .deadline(post.getDeadline())
+                .description(HirePostDelta.preview(post.getDescription()))
+                .build());
+    }
+    
     private HirePostResponse convertToResponse(HirePost post) {
-        Long applicationsCount = applicationRepository.countApplicationsByHirePost(post);
-        
         return HirePostResponse.builder()
                 .postId(post.getPostId())
                 .description(post.getDescription())
@@ -371,16 +474,17 @@ public class HirePostService {
                 .customerPhone(post.getCustomer().getPhone())
                 .customerLatitude(post.getCustomer().getLatitude())
                 .customerLongitude(post.getCustomer().getLongitude())
-                .applicationsCount(applicationsCount.intValue())
+                .applicationsCount(post.getApplicationsCount() != null ? post.getApplicationsCount() : 0)
                 .build();
     }
     
-    private WorkerApplicationResponse convertToWorkerApplicationResponse(PostApplicationMapping application, Integer selectedWorkerId) {
+    private WorkerApplicationResponse convertToWorkerApplicationResponse(PostApplicationMapping application, WorkerStats stats,
+                                                                         double rankScore, int rank, Integer selectedWorkerId) {
         Worker worker = application.getWorker();
         
-        // Get additional worker statistics
-        Long totalReviews = reviewRepository.countReviewsByWorker(worker);
-        Double averageRating = reviewRepository.findAverageRatingByWorker(worker);
+        // Review stats come from the worker's stats row; workers without one have no reviews or jobs yet
+        long totalReviews = stats != null ? stats.getReviewCount() : 0;
+        double averageRating = totalReviews > 0 ? (double) stats.getRatingSum() / totalReviews : 0.0;
         
         // Check if this worker is selected
         boolean isSelected = selectedWorkerId != null && selectedWorkerId.equals(worker.getWorkerId());
@@ -398,9 +502,12 @@ public class HirePostService {
                 .workerField(worker.getField())
                 .workerRating(worker.getRating())
                 .workerExperience(worker.getExperience())
-                .totalReviews(totalReviews.intValue())
-                .averageRating(averageRating != null ? averageRating : 0.0)
+                .totalReviews((int) totalReviews)
+                .averageRating(averageRating)
                 .isSelected(isSelected)
+                .jobsCompleted(stats != null ? stats.getJobsCompleted().intValue() : 0)
+                .rankScore(rankScore)
+                .rank(rank)
                 .build();
     }
 
@@ -414,44 +521,301 @@ public class HirePostService {
         return applicationRepository.existsByWorkerAndHirePost(worker, post);
     }
     
-    // Location-based sorting method for hire posts
-    public List<HirePostResponse> sortHirePostsByLocationForWorker(List<HirePostResponse> posts, Integer workerId) {
+    /**
+     * Available posts within a radius of the worker, nearest first.
+     * Filtering and ordering run in the database; pages are keyed on (distance, postId).
+     */
+    public HirePostPageResponse getAvailableHirePostsNearWorker(Integer workerId, String field, Double radiusKm,
+                                                                String cursor, Integer limit) {
+        Worker worker = workerRepository.findById(workerId)
+                .orElseThrow(() -> new RuntimeException("Worker not found"));
+        
+        if (worker.getLatitude() == null || worker.getLongitude() == null) {
+            throw new RuntimeException("Please set your location to see nearby posts");
+        }
+        
+        double radius = radiusKm == null || radiusKm <= 0 ? DEFAULT_NEARBY_RADIUS_KM : Math.min(radiusKm, MAX_NEARBY_RADIUS_KM);
+        int pageSize = resolvePageSize(limit);
+        
+        double afterDistance = -1.0;
+        int afterPostId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            afterDistance = Double.parseDouble(parts[0]);
+            afterPostId = Integer.parseInt(parts[1]);
+        }
+        
+        double lat = worker.getLatitude();
+        double lon = worker.getLongitude();
+        double latDelta = radius / KM_PER_DEGREE_LATITUDE;
+        double lonDelta = radius / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        
+        // Fetch one extra row to know whether another page exists
+        List<Object[]> rows = hirePostRepository.findAvailablePostIdsNear(
+                lat, lon, field != null ? field.trim() : "",
+                lat - latDelta, lat + latDelta, lon - lonDelta, lon + lonDelta,
+                radius, afterDistance, afterPostId, pageSize + 1);
+        return toDistancePage(rows, pageSize);
+    }
+    
+    /**
+     * Every available post, nearest to the worker first, with posts of unlocated customers last.
+     * A worker without a location gets the newest-first feed instead.
+     * Pages are keyed on (distance, postId), with an infinite distance for unlocated customers.
+     */
+    public HirePostPageResponse getAvailableHirePostsByDistance(Integer workerId, String field, String cursor, Integer limit) {
         Worker worker = workerRepository.findById(workerId)
                 .orElseThrow(() -> new RuntimeException("Worker not found"));
         
-        // If worker doesn't have location coordinates, return unsorted list
         if (worker.getLatitude() == null || worker.getLongitude() == null) {
-            return posts;
-        }
-        
-        return posts.stream()
-                .sorted((post1, post2) -> {
-                    double distance1 = calculateDistance(
-                        worker.getLatitude(), worker.getLongitude(),
-                        post1.getCustomerLatitude(), post1.getCustomerLongitude()
-                    );
-                    double distance2 = calculateDistance(
-                        worker.getLatitude(), worker.getLongitude(),
-                        post2.getCustomerLatitude(), post2.getCustomerLongitude()
-                    );
-                    return Double.compare(distance1, distance2);
-                })
+            return getAvailableHirePostsPage(field, cursor, limit);
+        }
+        
+        int pageSize = resolvePageSize(limit);
+        double afterDistance = -1.0;
+        int afterPostId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            afterDistance = Double.parseDouble(parts[0]);
+            afterPostId = Integer.parseInt(parts[1]);
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<Object[]> rows = hirePostRepository.findAvailablePostIdsByDistance(
+                worker.getLatitude(), worker.getLongitude(), field != null ? field.trim() : "",
+                afterDistance, afterPostId, pageSize + 1);
+        return toDistancePage(rows, pageSize);
+    }
+    
+    // Rows are (postId, distance) ordered by distance; an infinite distance means the customer has no location
+    private HirePostPageResponse toDistancePage(List<Object[]> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        List<Integer> postIds = rows.stream()
+                .map(row -> ((Number) row[0]).intValue())
                 .collect(Collectors.toList());
+        Map<Integer, HirePost> postsById = postIds.isEmpty() ? Map.of() :
+                hirePostRepository.findAllWithCustomerByPostIdIn(postIds).stream()
+                        .collect(Collectors.toMap(HirePost::getPostId, Function.identity()));
+        
+        List<HirePostResponse> posts = new ArrayList<>();
+        for (Object[] row : rows) {
+            HirePost post = postsById.get(((Number) row[0]).intValue());
+            if (post != null) {
+                HirePostResponse response = convertToResponse(post);
+                double distance = ((Number) row[1]).doubleValue();
+                if (!Double.isInfinite(distance)) {
+                    response.setDistanceKm(distance);
+                }
+                posts.add(response);
+            }
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(((Number) last[1]).doubleValue() + "|" + ((Number) last[0]).intValue());
+        }
+        
+        return HirePostPageResponse.builder()
+                .posts(posts)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
     
-    // Calculate distance between two coordinates using Haversine formula
-    private double calculateDistance(Double lat1, Double lon1, Double lat2, Double lon2) {
-        final int R = 6371; // Radius of the earth in km
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        double distance = R * c; // Distance in km
-        
-        return distance;
+    /**
+     * Available posts ranked for the worker by the match engine, best first.
+     * Pages are keyed on (score, postId) and served from the worker's prepared candidate list.
+     */
+    public HirePostPageResponse getRecommendedHirePosts(Integer workerId, String cursor, Integer limit) {
+        Worker worker = workerRepository.findById(workerId)
+                .orElseThrow(() -> new RuntimeException("Worker not found"));
+        
+        int pageSize = resolvePageSize(limit);
+        double afterScore = Double.POSITIVE_INFINITY;
+        int afterPostId = 0;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                afterScore = Double.parseDouble(parts[0]);
+                afterPostId = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+        
+        // Fetch one extra match to know whether another page exists
+        List<HirePostMatchEngine.Match> matches = matchEngine.recommend(worker, afterScore, afterPostId, pageSize + 1);
+        boolean hasNext = matches.size() > pageSize;
+        if (hasNext) {
+            matches = matches.subList(0, pageSize);
+        }
+        
+        List<Integer> postIds = matches.stream()
+                .map(HirePostMatchEngine.Match::getPostId)
+                .collect(Collectors.toList());
+        Map<Integer, HirePost> postsById = postIds.isEmpty() ? Map.of() :
+                hirePostRepository.findAllWithCustomerByPostIdIn(postIds).stream()
+                        .collect(Collectors.toMap(HirePost::getPostId, Function.identity()));
+        
+        List<HirePostResponse> posts = new ArrayList<>();
+        for (HirePostMatchEngine.Match match : matches) {
+            HirePost post = postsById.get(match.getPostId());
+            // Skip posts taken since the list was prepared; the engine drops them once the change commits
+            if (post != null && post.getStatus() == HirePostStatus.AVAILABLE) {
+                HirePostResponse response = convertToResponse(post);
+                response.setMatchScore(match.getScore());
+                posts.add(response);
+            }
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            HirePostMatchEngine.Match last = matches.get(matches.size() - 1);
+            nextCursor = encodeCursor(last.getScore() + "|" + last.getPostId());
+        }
+        
+        return HirePostPageResponse.builder()
+                .posts(posts)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    /**
+     * Full-text search over post descriptions and fields, best match first.
+     * Every word is matched as a prefix so results update while the user types. Optional filters:
+     * field, status (AVAILABLE by default), customer district and a radius around the worker.
+     * Pages are keyed on (rank, postId).
+     */
+    public HirePostPageResponse searchHirePosts(String text, String field, String status, String district,
+                                                Integer workerId, Double radiusKm, String cursor, Integer limit) {
+        String query = toPrefixTsQuery(text);
+        if (query.isEmpty()) {
+            throw new RuntimeException("Search text is required");
+        }
+        
+        HirePostStatus postStatus;
+        try {
+            postStatus = status == null || status.isBlank() ? HirePostStatus.AVAILABLE : HirePostStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid status: " + status);
+        }
+        
+        double lat = 0;
+        double lon = 0;
+        double radius = 0;
+        if (radiusKm != null && radiusKm > 0) {
+            Worker worker = workerRepository.findById(workerId)
+                    .orElseThrow(() -> new RuntimeException("Worker not found"));
+            if (worker.getLatitude() == null || worker.getLongitude() == null) {
+                throw new RuntimeException("Please set your location to search nearby posts");
+            }
+            lat = worker.getLatitude();
+            lon = worker.getLongitude();
+            radius = Math.min(radiusKm, MAX_NEARBY_RADIUS_KM);
+        }
+        double latDelta = radius / KM_PER_DEGREE_LATITUDE;
+        double lonDelta = radius / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(lat)), 0.01));
+        
+        int pageSize = resolvePageSize(limit);
+        double afterRank = Double.POSITIVE_INFINITY;
+        int afterPostId = Integer.MAX_VALUE;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decodeCursor(cursor);
+            try {
+                afterRank = Float.parseFloat(parts[0]);
+                afterPostId = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        List<Object[]> rows = hirePostRepository.searchPostIds(
+                query, postStatus.name(), field != null ? field.trim() : "", district != null ? district.trim() : "",
+                lat, lon, lat - latDelta, lat + latDelta, lon - lonDelta, lon + lonDelta,
+                radius, afterRank, afterPostId, pageSize + 1);
+        
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        
+        List<Integer> postIds = rows.stream()
+                .map(row -> ((Number) row[0]).intValue())
+                .collect(Collectors.toList());
+        Map<Integer, HirePost> postsById = postIds.isEmpty() ? Map.of() :
+                hirePostRepository.findAllWithCustomerByPostIdIn(postIds).stream()
+                        .collect(Collectors.toMap(HirePost::getPostId, Function.identity()));
+        
+        List<HirePostResponse> posts = postIds.stream()
+                .map(postsById::get)
+                .filter(post -> post != null)
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+        
+        String nextCursor = null;
+        if (hasNext) {
+            // ts_rank is a real; Float keeps the cursor exactly equal to the stored rank
+            Object[] last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(((Number) last[1]).floatValue() + "|" + ((Number) last[0]).intValue());
+        }
+        
+        return HirePostPageResponse.builder()
+                .posts(posts)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+    
+    // "plumb kitch" -> "plumb:* & kitch:*"; anything but letters, marks and digits separates words
+    private String toPrefixTsQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{M}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_SEARCH_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+    
+    private String encodeCursor(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    /**
+     * Repair application counters that drifted from post_application_mapping.
+     * Also runs right after startup, which fills the counter for posts created before it existed.
+     * The repository update runs in its own transaction, so a failure is logged here after it rolled back.
+     */
+    @Scheduled(fixedRate = 86400000) // Run daily
+    public void reconcileApplicationsCounts() {
+        try {
+            int fixed = hirePostRepository.reconcileApplicationsCounts();
+            if (fixed > 0) {
+                log.info("Reconciled application counters for {} hire posts", fixed);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reconcile hire post application counters", e);
+        }
     }
     
     // Get count of pending bookings for a customer (hire posts with BOOKED status)
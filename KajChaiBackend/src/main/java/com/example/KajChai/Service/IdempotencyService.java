@@ -0,0 +1,127 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DTO.ErrorResponse;
+import com.example.KajChai.DatabaseEntity.IdempotencyRecord;
+import com.example.KajChai.Repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST endpoints safe to retry with a client-supplied Idempotency-Key header.
+ * The first request with a key runs and its successful response is stored; repeats of the
+ * same key by the same user for the same operation get the stored response back without
+ * running again. Failed responses are not stored, so the client can retry them with the same key.
+ * A hash of the request parameters is stored with the key, and reusing a key with different
+ * parameters is refused with 422 rather than answered with another request's response.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final long ABANDONED_AFTER_SECONDS = 60;
+    private static final long RETENTION_HOURS = 24;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    // The application's mapper, so replayed bodies are serialized exactly like live ones
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Run the action once per (scope, key); without a key the action simply runs.
+     * request holds everything that identifies the operation beyond the scope, e.g. path
+     * variables and the body, and must serialize the same way for the same request.
+     */
+    public ResponseEntity<?> execute(String idempotencyKey, String scope, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Invalid Idempotency-Key", "Key must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+
+        String recordKey = scope + "|" + idempotencyKey.trim();
+        String requestHash = hash(request);
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = idempotencyRecordRepository.claim(recordKey, requestHash, now) == 1
+                || idempotencyRecordRepository.claimAbandoned(recordKey, requestHash, now, now.minusSeconds(ABANDONED_AFTER_SECONDS)) == 1;
+
+        if (!claimed) {
+            IdempotencyRecord existing = idempotencyRecordRepository.findById(recordKey).orElse(null);
+            if (existing == null) {
+                // Released by a failed attempt between our claim and this read
+                return execute(idempotencyKey, scope, request, action);
+            }
+            // Records stored before request hashes were kept have none to compare
+            if (existing.getRequestHash() != null && !existing.getRequestHash().equals(requestHash)) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(new ErrorResponse("Idempotency-Key reused", "This Idempotency-Key was already used for a different request"));
+            }
+            if (existing.getStatusCode() == null) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ErrorResponse("Request in progress", "A request with this Idempotency-Key is still being processed"));
+            }
+            log.debug("Replaying stored response for idempotency key {}", recordKey);
+            return ResponseEntity.status(existing.getStatusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(existing.getResponseBody());
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.deleteById(recordKey);
+            throw e;
+        }
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            idempotencyRecordRepository.deleteById(recordKey);
+            return response;
+        }
+
+        try {
+            idempotencyRecordRepository.complete(recordKey, response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody()));
+        } catch (Exception e) {
+            // The action already succeeded; a retry will be rejected by the operation's own constraints instead
+            log.warn("Failed to store response for idempotency key {}: {}", recordKey, e.getMessage());
+            idempotencyRecordRepository.deleteById(recordKey);
+        }
+        return response;
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to hash request for idempotency check", e);
+        }
+    }
+
+    @Scheduled(fixedRate = 3600000) // Run hourly
+    public void cleanupExpiredRecords() {
+        try {
+            int deleted = idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minusHours(RETENTION_HOURS));
+            if (deleted > 0) {
+                log.info("Cleaned up {} expired idempotency records", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Failed to cleanup expired idempotency records", e);
+        }
+    }
+}
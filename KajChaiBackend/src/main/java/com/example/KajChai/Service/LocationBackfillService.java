@@ -0,0 +1,341 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.Customer;
+import com.example.KajChai.DatabaseEntity.LocationBackfillCheckpoint;
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.Repository.CustomerRepository;
+import com.example.KajChai.Repository.LocationBackfillCheckpointRepository;
+import com.example.KajChai.Repository.WorkerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fills in coordinates and address components for users created before location capture existed.
+ * Works through customers and then workers in id order, one chunk at a time. Each chunk is written
+ * with a single JDBC batch, then the checkpoint is saved so a stopped or crashed run can resume.
+ * Identical address strings are resolved once per run. Lookups go through the shared Nominatim rate
+ * limiter in background mode, so they wait their turn behind interactive geocoding instead of failing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationBackfillService {
+
+    private static final String JOB_NAME = "location-backfill";
+
+    private final LocationService locationService;
+    private final CustomerRepository customerRepository;
+    private final WorkerRepository workerRepository;
+    private final LocationBackfillCheckpointRepository checkpointRepository;
+    private final WorkerLocationIndex workerLocationIndex;
+    private final NearestWorkerCache nearestWorkerCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.location-backfill.chunk-size:100}")
+    private int chunkSize;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "location-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+
+    // Only touched by the runner thread
+    private final Map<String, ResolvedAddress> resolvedAddresses = new HashMap<>();
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested.set(true);
+        runner.shutdownNow();
+    }
+
+    /**
+     * Start the job in the background. Resumes from the last checkpoint unless restart is true.
+     * Returns false if a run is already in progress.
+     */
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested.set(false);
+        runner.submit(() -> {
+            try {
+                run(restart);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Ask the running job to stop after the current user; progress up to that point is kept
+     */
+    public void stop() {
+        stopRequested.set(true);
+    }
+
+    public Map<String, Object> getStatus() {
+        LocationBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        status.put("remainingCustomers", customerRepository.countWithoutLocation());
+        status.put("remainingWorkers", workerRepository.countWithoutLocation());
+        if (checkpoint != null) {
+            status.put("status", checkpoint.getStatus());
+            status.put("processed", checkpoint.getProcessed());
+            status.put("updated", checkpoint.getUpdated());
+            status.put("failed", checkpoint.getFailed());
+            status.put("lastCustomerId", checkpoint.getLastCustomerId());
+            status.put("lastWorkerId", checkpoint.getLastWorkerId());
+            status.put("startedAt", checkpoint.getStartedAt());
+            status.put("updatedAt", checkpoint.getUpdatedAt());
+        }
+        return status;
+    }
+
+    private void run(boolean restart) {
+        LocationBackfillCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+            .filter(existing -> !restart)
+            .orElseGet(() -> LocationBackfillCheckpoint.builder()
+                .jobName(JOB_NAME)
+                .startedAt(LocalDateTime.now())
+                .build());
+
+        log.info("Starting location backfill from customer {} / worker {}",
+            checkpoint.getLastCustomerId(), checkpoint.getLastWorkerId());
+        resolvedAddresses.clear();
+        saveCheckpoint(checkpoint, "RUNNING");
+
+        try {
+            backfillCustomers(checkpoint);
+            backfillWorkers(checkpoint);
+            saveCheckpoint(checkpoint, stopRequested.get() ? "STOPPED" : "COMPLETED");
+            log.info("Location backfill {}: processed {}, updated {}, failed {}", checkpoint.getStatus(),
+                checkpoint.getProcessed(), checkpoint.getUpdated(), checkpoint.getFailed());
+        } catch (Exception e) {
+            log.error("Location backfill failed: {}", e.getMessage(), e);
+            saveCheckpoint(checkpoint, "FAILED");
+        } finally {
+            resolvedAddresses.clear();
+        }
+    }
+
+    private void backfillCustomers(LocationBackfillCheckpoint checkpoint) {
+        while (!stopRequested.get()) {
+            List<Customer> chunk = customerRepository.findWithoutLocationAfter(
+                checkpoint.getLastCustomerId(), PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<Customer> resolved = new ArrayList<>();
+            int lastId = checkpoint.getLastCustomerId();
+            for (Customer customer : chunk) {
+                if (stopRequested.get()) {
+                    break;
+                }
+                lastId = customer.getCustomerId();
+                checkpoint.setProcessed(checkpoint.getProcessed() + 1);
+
+                ResolvedAddress address = resolve(customer.getCity(), customer.getUpazila(), customer.getDistrict());
+                if (address == null) {
+                    checkpoint.setFailed(checkpoint.getFailed() + 1);
+                    log.warn("Could not geocode location for customer {}", customer.getCustomerId());
+                    continue;
+                }
+                customer.setLatitude(address.latitude);
+                customer.setLongitude(address.longitude);
+                customer.setCity(address.pick("city", "Unknown City", customer.getCity()));
+                customer.setUpazila(address.pick("upazila", "Unknown Area", customer.getUpazila()));
+                customer.setDistrict(address.pick("district", "Unknown District", customer.getDistrict()));
+                customer.setFullAddress(address.pick("fullAddress", null, customer.getFullAddress()));
+                resolved.add(customer);
+            }
+
+            if (!resolved.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE customer SET latitude = ?, longitude = ?, city = ?, upazila = ?, district = ?, full_address = ? " +
+                    "WHERE customer_id = ?",
+                    resolved, resolved.size(), (ps, customer) -> {
+                        ps.setDouble(1, customer.getLatitude());
+                        ps.setDouble(2, customer.getLongitude());
+                        ps.setString(3, customer.getCity());
+                        ps.setString(4, customer.getUpazila());
+                        ps.setString(5, customer.getDistrict());
+                        ps.setString(6, customer.getFullAddress());
+                        ps.setInt(7, customer.getCustomerId());
+                    });
+            }
+
+            checkpoint.setUpdated(checkpoint.getUpdated() + resolved.size());
+            checkpoint.setLastCustomerId(lastId);
+            saveCheckpoint(checkpoint, "RUNNING");
+        }
+    }
+
+    private void backfillWorkers(LocationBackfillCheckpoint checkpoint) {
+        while (!stopRequested.get()) {
+            List<Worker> chunk = workerRepository.findWithoutLocationAfter(
+                checkpoint.getLastWorkerId(), PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            List<Worker> resolved = new ArrayList<>();
+            int lastId = checkpoint.getLastWorkerId();
+            for (Worker worker : chunk) {
+                if (stopRequested.get()) {
+                    break;
+                }
+                lastId = worker.getWorkerId();
+                checkpoint.setProcessed(checkpoint.getProcessed() + 1);
+
+                ResolvedAddress address = resolve(worker.getCity(), worker.getUpazila(), worker.getDistrict());
+                if (address == null) {
+                    checkpoint.setFailed(checkpoint.getFailed() + 1);
+                    log.warn("Could not geocode location for worker {}", worker.getWorkerId());
+                    continue;
+                }
+                worker.setLatitude(address.latitude);
+                worker.setLongitude(address.longitude);
+                worker.setCity(address.pick("city", "Unknown City", worker.getCity()));
+                worker.setUpazila(address.pick("upazila", "Unknown Area", worker.getUpazila()));
+                worker.setDistrict(address.pick("district", "Unknown District", worker.getDistrict()));
+                worker.setFullAddress(address.pick("fullAddress", null, worker.getFullAddress()));
+                resolved.add(worker);
+            }
+
+            if (!resolved.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE worker SET latitude = ?, longitude = ?, city = ?, upazila = ?, district = ?, full_address = ? " +
+                    "WHERE worker_id = ?",
+                    resolved, resolved.size(), (ps, worker) -> {
+                        ps.setDouble(1, worker.getLatitude());
+                        ps.setDouble(2, worker.getLongitude());
+                        ps.setString(3, worker.getCity());
+                        ps.setString(4, worker.getUpazila());
+                        ps.setString(5, worker.getDistrict());
+                        ps.setString(6, worker.getFullAddress());
+                        ps.setInt(7, worker.getWorkerId());
+                    });
+            }
+            for (Worker worker : resolved) {
+                workerLocationIndex.upsert(worker);
+                nearestWorkerCache.workerChanged(worker);
+            }
+
+            checkpoint.setUpdated(checkpoint.getUpdated() + resolved.size());
+            checkpoint.setLastWorkerId(lastId);
+            saveCheckpoint(checkpoint, "RUNNING");
+        }
+    }
+
+    /**
+     * Coordinates and address details for an address, resolved at most once per run
+     */
+    private ResolvedAddress resolve(String city, String upazila, String district) {
+        String searchQuery = buildSearchQuery(city, upazila, district);
+        if (searchQuery.isEmpty()) {
+            return null;
+        }
+        if (resolvedAddresses.containsKey(searchQuery)) {
+            return resolvedAddresses.get(searchQuery);
+        }
+
+        ResolvedAddress resolved = null;
+        try {
+            Map<String, Double> coordinates = locationService.geocodeAddressInBackground(searchQuery);
+            if (coordinates.containsKey("latitude") && coordinates.containsKey("longitude")) {
+                double latitude = coordinates.get("latitude");
+                double longitude = coordinates.get("longitude");
+
+                Map<String, String> addressInfo;
+                try {
+                    addressInfo = locationService.reverseGeocodeInBackground(latitude, longitude);
+                } catch (Exception e) {
+                    log.warn("Error getting detailed address for '{}': {}", searchQuery, e.getMessage());
+                    addressInfo = new HashMap<>();
+                }
+                resolved = new ResolvedAddress(latitude, longitude, addressInfo);
+            }
+        } catch (Exception e) {
+            log.error("Error geocoding '{}': {}", searchQuery, e.getMessage());
+        }
+
+        resolvedAddresses.put(searchQuery, resolved);
+        return resolved;
+    }
+
+    private void saveCheckpoint(LocationBackfillCheckpoint checkpoint, String status) {
+        checkpoint.setStatus(status);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Build a search query from existing address components
+     */
+    private String buildSearchQuery(String city, String upazila, String district) {
+        StringBuilder query = new StringBuilder();
+
+        if (city != null && !city.trim().isEmpty()) {
+            query.append(city.trim());
+        }
+
+        if (upazila != null && !upazila.trim().isEmpty()) {
+            if (query.length() > 0) query.append(", ");
+            query.append(upazila.trim());
+        }
+
+        if (district != null && !district.trim().isEmpty()) {
+            if (query.length() > 0) query.append(", ");
+            query.append(district.trim());
+        }
+
+        // Always add Bangladesh for better results
+        if (query.length() > 0) {
+            query.append(", Bangladesh");
+        }
+
+        return query.toString();
+    }
+
+    private static final class ResolvedAddress {
+        private final double latitude;
+        private final double longitude;
+        private final Map<String, String> addressInfo;
+
+        private ResolvedAddress(double latitude, double longitude, Map<String, String> addressInfo) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.addressInfo = addressInfo;
+        }
+
+        // Use the resolved component only if it is better than the placeholder
+        private String pick(String key, String unknownValue, String current) {
+            String value = addressInfo.get(key);
+            if (value == null || value.equals(unknownValue)) {
+                return current;
+            }
+            return value;
+        }
+    }
+}
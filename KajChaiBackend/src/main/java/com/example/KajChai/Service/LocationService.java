@@ -1,44 +1,176 @@
 package com.example.KajChai.Service;
 
+import com.example.KajChai.DTO.LocationRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import com.example.KajChai.Repository.CustomerRepository;
-import com.example.KajChai.Repository.WorkerRepository;
-import com.example.KajChai.DatabaseEntity.Customer;
-import com.example.KajChai.DatabaseEntity.Worker;
 
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LocationService {
 
-    private final RestTemplate restTemplate;
-    private final CustomerRepository customerRepository;
-    private final WorkerRepository workerRepository;
+    private final NominatimClient nominatimClient;
+    private final ReverseGeocodeCache reverseGeocodeCache;
+    private final BangladeshGazetteer gazetteer;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Forward geocoding lookups run on a small bounded pool so each one is bounded by a timeout
+    private static final int GEOCODE_THREADS = 8;
+    private static final long GEOCODE_TIMEOUT_MS = 15000;
+    // About one rate-limit token apart, so a hedge rarely just sits behind the one before it
+    private static final long GEOCODE_HEDGE_DELAY_MS = 1000;
+    private static final int GEOCODE_QUEUE_CAPACITY = 32;
+    // Bounded so a burst of lookups is turned away instead of piling up behind the rate limiter
+    private final ExecutorService geocodeExecutor = new ThreadPoolExecutor(GEOCODE_THREADS, GEOCODE_THREADS,
+        0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(GEOCODE_QUEUE_CAPACITY), new GeocodeThreadFactory());
+
+    // Forward geocoding results per normalized address, misses included
+    private static final int GEOCODE_CACHE_MAX_ENTRIES = 5000;
+    private static final long GEOCODE_HIT_TTL_MS = 24 * 60 * 60 * 1000L;
+    private static final long GEOCODE_MISS_TTL_MS = 60 * 60 * 1000L;
+    private final Map<String, CachedGeocode> geocodeCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedGeocode> eldest) {
+                return size() > GEOCODE_CACHE_MAX_ENTRIES;
+            }
+        });
+
+    // Upper bound on origins x destinations for one distance matrix request
+    private static final int MAX_DISTANCE_MATRIX_CELLS = 10000;
+
+    // Whether Nominatim is still asked for city and full address when the gazetteer resolves a point
+    @Value("${app.geocode.nominatim-fallback.enabled:false}")
+    private boolean nominatimFallbackEnabled;
+
+    @PreDestroy
+    public void shutdown() {
+        geocodeExecutor.shutdownNow();
+    }
+
     /**
-     * Reverse geocode coordinates to get address components using Nominatim API (free)
-     * Enhanced with better address parsing for Bangladesh locations
+     * Reverse geocode coordinates to get address components.
+     * When Nominatim is called and names a known district, its district and division are kept,
+     * since it resolves real boundaries while the nearest centroid can land in a neighbouring
+     * district. Otherwise upazila, district and division come from the offline gazetteer.
      */
     public Map<String, String> reverseGeocode(double latitude, double longitude) {
+        return reverseGeocode(latitude, longitude, false);
+    }
+
+    /**
+     * Reverse geocode for batch jobs, waiting for the rate limiter instead of being turned away
+     */
+    public Map<String, String> reverseGeocodeInBackground(double latitude, double longitude) {
+        return reverseGeocode(latitude, longitude, true);
+    }
+
+    private Map<String, String> reverseGeocode(double latitude, double longitude, boolean background) {
+        BangladeshGazetteer.AdminUnits units = gazetteer.resolve(latitude, longitude);
+        if (units == null) {
+            // Outside gazetteer coverage
+            return reverseGeocodeOnline(latitude, longitude, background);
+        }
+        
+        Map<String, String> addressComponents = nominatimFallbackEnabled
+            ? reverseGeocodeOnline(latitude, longitude, background)
+            : getDefaultAddressComponents();
+        
+        String district = addressComponents.get("district");
+        if (gazetteer.isKnownDistrict(district)) {
+            // Store the gazetteer's spelling whichever name Nominatim used
+            district = gazetteer.canonicalDistrict(district);
+            addressComponents.put("district", district);
+            if ("Unknown Division".equals(addressComponents.get("division"))) {
+                addressComponents.put("division", gazetteer.divisionOf(district));
+            }
+            // The centroid's upazila only stands if it lies in the district Nominatim named
+            if (units.getUpazila() != null && units.getDistrict().equalsIgnoreCase(district)) {
+                addressComponents.put("upazila", units.getUpazila());
+            }
+        } else {
+            district = units.getDistrict();
+            addressComponents.put("district", district);
+            addressComponents.put("division", units.getDivision());
+            if (units.getUpazila() != null) {
+                addressComponents.put("upazila", units.getUpazila());
+            }
+        }
+        if ("Unknown City".equals(addressComponents.get("city"))) {
+            addressComponents.put("city", district);
+        }
+        if ("Address not available".equals(addressComponents.get("fullAddress"))) {
+            String upazila = addressComponents.get("upazila");
+            addressComponents.put("fullAddress", upazila != null && !"Unknown Area".equals(upazila)
+                ? upazila + ", " + district + ", Bangladesh"
+                : district + ", Bangladesh");
+        }
+        
+        return addressComponents;
+    }
+
+    /**
+     * Served from the quantized cache when possible; Nominatim is only called on a miss
+     * or when the cached entry has expired, and a stale entry is kept if the refresh fails.
+     */
+    private Map<String, String> reverseGeocodeOnline(double latitude, double longitude, boolean background) {
+        ReverseGeocodeCache.Cached cached = reverseGeocodeCache.get(latitude, longitude);
+        if (cached != null && cached.isFresh()) {
+            return cached.getComponents();
+        }
+        
+        Map<String, String> resolved = fetchReverseGeocode(latitude, longitude, background);
+        if (resolved != null) {
+            reverseGeocodeCache.put(latitude, longitude, resolved);
+            return new HashMap<>(resolved);
+        }
+        
+        return cached != null ? cached.getComponents() : getDefaultAddressComponents();
+    }
+
+    /**
+     * Reverse geocode coordinates using Nominatim API (free), returns null on failure
+     * Enhanced with better address parsing for Bangladesh locations
+     */
+    private Map<String, String> fetchReverseGeocode(double latitude, double longitude, boolean background) {
         try {
-            String url = String.format(
-                "https://nominatim.openstreetmap.org/reverse?format=json&lat=%f&lon=%f&addressdetails=1&accept-language=en&zoom=18",
+            String query = String.format(
+                "format=json&lat=%f&lon=%f&addressdetails=1&accept-language=en&zoom=18",
                 latitude, longitude
             );
             
             log.debug("Reverse geocoding: {},{}", latitude, longitude);
             
-            String response = restTemplate.getForObject(url, String.class);
+            // Points in the same cache cell share one call, since they share one cached result
+            String key = reverseGeocodeCache.cellKey(latitude, longitude);
+            String response = background
+                ? nominatimClient.reverseInBackground(key, query)
+                : nominatimClient.reverse(key, query);
             JsonNode jsonNode = objectMapper.readTree(response);
             
             Map<String, String> addressComponents = new HashMap<>();
@@ -63,14 +195,14 @@ public class LocationService {
                     latitude, longitude, city, upazila, district, division);
             } else {
                 log.warn("No address details found for coordinates: {},{}", latitude, longitude);
-                return getDefaultAddressComponents();
+                return null;
             }
             
             return addressComponents;
             
         } catch (Exception e) {
             log.error("Error reverse geocoding coordinates {},{}: {}", latitude, longitude, e.getMessage());
-            return getDefaultAddressComponents();
+            return null;
         }
     }
 
@@ -117,90 +249,187 @@ public class LocationService {
 
     /**
      * Forward geocode address to get coordinates using Nominatim API (free)
-     * Enhanced with multiple search strategies for better results
+     * Enhanced with multiple search strategies for better results. The strategies are hedged on the
+     * bounded geocode pool: each one starts when the earlier ones came back empty or have been running
+     * for a second, and the first result in priority order wins while the rest are cancelled.
      */
     public Map<String, Double> geocodeAddress(String address) {
+        return geocodeAddress(address, false);
+    }
+
+    /**
+     * Forward geocode for batch jobs: runs on the caller's thread and waits for the rate limiter
+     * instead of being turned away, yielding to interactive lookups
+     */
+    public Map<String, Double> geocodeAddressInBackground(String address) {
+        return geocodeAddress(address, true);
+    }
+
+    private Map<String, Double> geocodeAddress(String address, boolean background) {
         if (address == null || address.trim().isEmpty()) {
             log.warn("Empty address provided for geocoding");
             return new HashMap<>();
         }
 
-        try {
-            // Strategy 1: Search as-is
-            Map<String, Double> result = searchAddress(address);
-            if (!result.isEmpty()) {
-                return result;
-            }
+        String cacheKey = address.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        CachedGeocode cached = geocodeCache.get(cacheKey);
+        if (cached != null && !cached.isExpired()) {
+            log.debug("Geocode cache hit for '{}'", address);
+            return new HashMap<>(cached.coordinates);
+        }
 
-            // Strategy 2: Search with "Bangladesh" appended
-            result = searchAddress(address + ", Bangladesh");
-            if (!result.isEmpty()) {
-                return result;
-            }
+        // Strategies in priority order
+        List<String> queries = new ArrayList<>();
+        queries.add(address);                                  // 1: as-is
+        queries.add(address + ", Bangladesh");                 // 2: with "Bangladesh" appended
+        queries.add(address + ", Dhaka, Bangladesh");          // 3: assuming most searches are in Dhaka
+        String cleanedAddress = address.replaceAll("[^a-zA-Z0-9\\s]", "").trim();
+        if (!cleanedAddress.equals(address)) {
+            queries.add(cleanedAddress + ", Bangladesh");      // 4: fuzzy search without special characters
+        }
 
-            // Strategy 3: Search with "Dhaka, Bangladesh" appended (assuming most searches are in Dhaka)
-            result = searchAddress(address + ", Dhaka, Bangladesh");
+        return background
+            ? geocodeSequentially(address, cacheKey, queries)
+            : geocodeHedged(address, cacheKey, queries);
+    }
+
+    // Batch jobs try one variant at a time on the caller's thread, so a lookup spends as few tokens as possible
+    private Map<String, Double> geocodeSequentially(String address, String cacheKey, List<String> queries) {
+        boolean anyFailed = false;
+        for (String query : queries) {
+            Map<String, Double> result;
+            try {
+                result = searchAddressInline(query);
+            } catch (ExecutionException e) {
+                anyFailed = true;
+                log.error("Error searching address '{}': {}", query, e.getCause().getMessage());
+                continue;
+            }
             if (!result.isEmpty()) {
-                return result;
+                geocodeCache.put(cacheKey, new CachedGeocode(result, GEOCODE_HIT_TTL_MS));
+                return new HashMap<>(result);
             }
+        }
+        return recordMiss(address, cacheKey, anyFailed);
+    }
 
-            // Strategy 4: Try fuzzy search by removing special characters
-            String cleanedAddress = address.replaceAll("[^a-zA-Z0-9\\s]", "").trim();
-            if (!cleanedAddress.equals(address)) {
-                result = searchAddress(cleanedAddress + ", Bangladesh");
-                if (!result.isEmpty()) {
-                    return result;
+    /**
+     * Interactive lookups hedge: the next variant is launched once the pending ones have all come back
+     * empty, or after GEOCODE_HEDGE_DELAY_MS if they are still running. The first non-empty answer in
+     * priority order wins and the variants still running are cancelled.
+     */
+    private Map<String, Double> geocodeHedged(String address, String cacheKey, List<String> queries) {
+        CompletionService<Map<String, Double>> completion = new ExecutorCompletionService<>(geocodeExecutor);
+        List<Future<Map<String, Double>>> launched = new ArrayList<>();
+        try {
+            boolean anyFailed = false;
+            int first = 0;
+            long deadline = System.currentTimeMillis() + GEOCODE_TIMEOUT_MS;
+            long nextLaunchAt = 0;
+            while (true) {
+                // Settle finished variants in priority order; a later answer waits for the earlier ones
+                while (first < launched.size() && launched.get(first).isDone()) {
+                    try {
+                        Map<String, Double> result = launched.get(first).get();
+                        if (!result.isEmpty()) {
+                            geocodeCache.put(cacheKey, new CachedGeocode(result, GEOCODE_HIT_TTL_MS));
+                            return new HashMap<>(result);
+                        }
+                    } catch (ExecutionException e) {
+                        anyFailed = true;
+                        log.error("Error searching address '{}': {}", queries.get(first), e.getCause().getMessage());
+                    }
+                    first++;
+                }
+                if (first == queries.size()) {
+                    return recordMiss(address, cacheKey, anyFailed);
                 }
-            }
 
-            log.warn("No results found for address: '{}'", address);
-            return new HashMap<>();
+                long now = System.currentTimeMillis();
+                if (launched.size() < queries.size() && (first == launched.size() || now >= nextLaunchAt)) {
+                    String query = queries.get(launched.size());
+                    try {
+                        launched.add(completion.submit(() -> searchAddress(query, false)));
+                    } catch (RejectedExecutionException e) {
+                        log.warn("Geocoding queue is full, skipping '{}'", query);
+                        launched.add(CompletableFuture.failedFuture(e));
+                    }
+                    nextLaunchAt = now + GEOCODE_HEDGE_DELAY_MS;
+                    continue;
+                }
 
-        } catch (Exception e) {
-            log.error("Error geocoding address '{}': {}", address, e.getMessage());
+                if (now >= deadline) {
+                    log.error("Timed out geocoding address '{}'", address);
+                    return new HashMap<>();
+                }
+                long wakeAt = launched.size() < queries.size() ? Math.min(deadline, nextLaunchAt) : deadline;
+                completion.poll(Math.max(1, wakeAt - now), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while geocoding address '{}'", address);
             return new HashMap<>();
+        } finally {
+            for (Future<Map<String, Double>> future : launched) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Map<String, Double> recordMiss(String address, String cacheKey, boolean anyFailed) {
+        log.warn("No results found for address: '{}'", address);
+        // Only remember the miss when every strategy actually got an answer
+        if (!anyFailed) {
+            geocodeCache.put(cacheKey, new CachedGeocode(new HashMap<>(), GEOCODE_MISS_TTL_MS));
         }
+        return new HashMap<>();
     }
 
-    private Map<String, Double> searchAddress(String searchQuery) {
+    // Paced by the limiter on the caller's thread, so it needs neither the pool nor the timeout
+    private Map<String, Double> searchAddressInline(String searchQuery) throws ExecutionException {
         try {
-            String url = String.format(
-                "https://nominatim.openstreetmap.org/search?format=json&q=%s&limit=5&countrycodes=bd&addressdetails=1&accept-language=en",
-                searchQuery.replace(" ", "%20")
-            );
-            
-            log.debug("Searching with query: '{}'", searchQuery);
+            return searchAddress(searchQuery, true);
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+    }
+
+    private Map<String, Double> searchAddress(String searchQuery, boolean background) throws Exception {
+        String query = String.format(
+            "format=json&q=%s&limit=5&countrycodes=bd&addressdetails=1&accept-language=en",
+            searchQuery.replace(" ", "%20")
+        );
+        
+        log.debug("Searching with query: '{}'", searchQuery);
+        
+        String key = searchQuery.trim().toLowerCase(Locale.ROOT);
+        String response = background
+            ? nominatimClient.searchInBackground(key, query)
+            : nominatimClient.search(key, query);
+        JsonNode jsonArray = objectMapper.readTree(response);
+        
+        Map<String, Double> coordinates = new HashMap<>();
+        
+        if (jsonArray != null && jsonArray.isArray() && jsonArray.size() > 0) {
+            // Get the first (best) result
+            JsonNode firstResult = jsonArray.get(0);
+            double lat = firstResult.get("lat").asDouble();
+            double lon = firstResult.get("lon").asDouble();
             
-            String response = restTemplate.getForObject(url, String.class);
-            JsonNode jsonArray = objectMapper.readTree(response);
+            coordinates.put("latitude", lat);
+            coordinates.put("longitude", lon);
             
-            Map<String, Double> coordinates = new HashMap<>();
+            log.info("Geocoded address '{}' -> {},{}", searchQuery, lat, lon);
             
-            if (jsonArray != null && jsonArray.isArray() && jsonArray.size() > 0) {
-                // Get the first (best) result
-                JsonNode firstResult = jsonArray.get(0);
-                double lat = firstResult.get("lat").asDouble();
-                double lon = firstResult.get("lon").asDouble();
-                
-                coordinates.put("latitude", lat);
-                coordinates.put("longitude", lon);
-                
-                log.info("Geocoded address '{}' -> {},{}", searchQuery, lat, lon);
-                
-                // Log additional results for debugging
-                if (jsonArray.size() > 1) {
-                    log.debug("Found {} total results for '{}'", jsonArray.size(), searchQuery);
-                }
-            } else {
-                log.debug("No results found for query: '{}'", searchQuery);
+            // Log additional results for debugging
+            if (jsonArray.size() > 1) {
+                log.debug("Found {} total results for '{}'", jsonArray.size(), searchQuery);
             }
-            
-            return coordinates;
-            
-        } catch (Exception e) {
-            log.error("Error searching address '{}': {}", searchQuery, e.getMessage());
-            return new HashMap<>();
+        } else {
+            log.debug("No results found for query: '{}'", searchQuery);
         }
+        
+        return coordinates;
     }
 
     /**
@@ -208,18 +437,46 @@ public class LocationService {
      * Returns distance in kilometers
      */
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the Earth in kilometers
+        return GeoDistance.haversineKm(lat1, lon1, lat2, lon2);
+    }
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c; // Distance in kilometers
+    /**
+     * Distances in kilometers from every origin (rows) to every destination (columns),
+     * rounded to the metre. The matrix size is capped at MAX_DISTANCE_MATRIX_CELLS.
+     */
+    public double[][] calculateDistanceMatrix(List<LocationRequest> origins, List<LocationRequest> destinations) {
+        if (origins == null || origins.isEmpty() || destinations == null || destinations.isEmpty()) {
+            throw new RuntimeException("At least one origin and one destination are required");
+        }
+        if ((long) origins.size() * destinations.size() > MAX_DISTANCE_MATRIX_CELLS) {
+            throw new RuntimeException("Distance matrix is limited to " + MAX_DISTANCE_MATRIX_CELLS + " origin-destination pairs");
+        }
+
+        double[][] originCoordinates = toCoordinateArrays(origins, "origin");
+        double[][] destinationCoordinates = toCoordinateArrays(destinations, "destination");
+        double[][] matrix = GeoDistance.matrixKm(originCoordinates[0], originCoordinates[1],
+            destinationCoordinates[0], destinationCoordinates[1]);
+
+        for (double[] row : matrix) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = Math.round(row[j] * 1000.0) / 1000.0;
+            }
+        }
+        return matrix;
+    }
+
+    // Latitudes in [0], longitudes in [1]
+    private double[][] toCoordinateArrays(List<LocationRequest> points, String label) {
+        double[][] coordinates = new double[2][points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            LocationRequest point = points.get(i);
+            if (point == null || point.getLatitude() == null || point.getLongitude() == null) {
+                throw new RuntimeException("Missing coordinates for " + label + " " + i);
+            }
+            coordinates[0][i] = point.getLatitude();
+            coordinates[1][i] = point.getLongitude();
+        }
+        return coordinates;
     }
 
     private String extractCity(JsonNode address) {
@@ -337,26 +594,8 @@ public class LocationService {
     }
 
     private boolean isKnownBangladeshiDistrict(String name) {
-        // Common Bangladeshi districts for better classification
-        String[] districts = {
-            "Dhaka", "Chittagong", "Sylhet", "Rajshahi", "Khulna", "Barisal", "Rangpur",
-            "Comilla", "Narayanganj", "Gazipur", "Tangail", "Mymensingh", "Kishoreganj",
-            "Narsingdi", "Munshiganj", "Manikganj", "Faridpur", "Gopalganj", "Madaripur",
-            "Shariatpur", "Rajbari", "Cox's Bazar", "Feni", "Lakshmipur", "Noakhali",
-            "Brahmanbaria", "Chandpur", "Habiganj", "Moulvibazar", "Sunamganj",
-            "Bogra", "Joypurhat", "Naogaon", "Natore", "Nawabganj", "Pabna", "Sirajganj",
-            "Bagerhat", "Chuadanga", "Jessore", "Jhenaidah", "Kushtia", "Magura", "Meherpur",
-            "Narail", "Satkhira", "Barguna", "Barisal", "Bhola", "Jhalokati", "Patuakhali",
-            "Pirojpur", "Dinajpur", "Gaibandha", "Kurigram", "Lalmonirhat", "Nilphamari",
-            "Panchagarh", "Rangpur", "Thakurgaon", "Jamalpur", "Mymensingh", "Netrakona", "Sherpur"
-        };
-        
-        for (String district : districts) {
-            if (name.toLowerCase().contains(district.toLowerCase())) {
-                return true;
-            }
-        }
-        return false;
+        // Exact lookup against the gazetteer's district names, ignoring "District"/"Zila" suffixes
+        return gazetteer.isKnownDistrict(cleanDistrictName(name));
     }
 
     /**
@@ -420,163 +659,28 @@ public class LocationService {
         return defaults;
     }
 
-    /**
-     * Populate location data for existing users who don't have coordinates
-     * Uses their existing city/district info to get approximate coordinates
-     */
-    public void populateExistingUsersLocation() {
-        log.info("Starting to populate location data for existing users...");
-        
-        // Update customers without location data
-        List<Customer> customersWithoutLocation = customerRepository.findAll().stream()
-            .filter(customer -> customer.getLatitude() == null || customer.getLongitude() == null)
-            .toList();
-        
-        log.info("Found {} customers without location data", customersWithoutLocation.size());
-        
-        for (Customer customer : customersWithoutLocation) {
-            try {
-                // Build search query from existing address components
-                String searchQuery = buildSearchQuery(customer.getCity(), customer.getUpazila(), customer.getDistrict());
-                
-                if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-                    log.debug("Geocoding for customer {}: {}", customer.getCustomerId(), searchQuery);
-                    
-                    Map<String, Double> coordinates = geocodeAddress(searchQuery);
-                    
-                    if (coordinates != null && !coordinates.isEmpty() && 
-                        coordinates.containsKey("latitude") && coordinates.containsKey("longitude")) {
-                        
-                        customer.setLatitude(coordinates.get("latitude"));
-                        customer.setLongitude(coordinates.get("longitude"));
-                        
-                        // Get detailed address info using reverse geocoding
-                        try {
-                            Map<String, String> addressInfo = reverseGeocode(
-                                coordinates.get("latitude"), coordinates.get("longitude")
-                            );
-                            
-                            if (addressInfo != null) {
-                                // Update address components if they're better than existing ones
-                                if (addressInfo.get("city") != null && !addressInfo.get("city").equals("Unknown City")) {
-                                    customer.setCity(addressInfo.get("city"));
-                                }
-                                if (addressInfo.get("upazila") != null && !addressInfo.get("upazila").equals("Unknown Area")) {
-                                    customer.setUpazila(addressInfo.get("upazila"));
-                                }
-                                if (addressInfo.get("district") != null && !addressInfo.get("district").equals("Unknown District")) {
-                                    customer.setDistrict(addressInfo.get("district"));
-                                }
-                                if (addressInfo.get("fullAddress") != null) {
-                                    customer.setFullAddress(addressInfo.get("fullAddress"));
-                                }
-                            }
-                        } catch (Exception e) {
-                            log.warn("Error getting detailed address for customer {}: {}", customer.getCustomerId(), e.getMessage());
-                        }
-                        
-                        customerRepository.save(customer);
-                        log.debug("Updated location for customer {}", customer.getCustomerId());
-                    } else {
-                        log.warn("Could not geocode location for customer {}: {}", customer.getCustomerId(), searchQuery);
-                    }
-                } else {
-                    log.warn("Insufficient address data for customer {}", customer.getCustomerId());
-                }
-            } catch (Exception e) {
-                log.error("Error updating location for customer {}: {}", customer.getCustomerId(), e.getMessage());
-            }
+    private static final class CachedGeocode {
+        private final Map<String, Double> coordinates;
+        private final long expiresAt;
+
+        private CachedGeocode(Map<String, Double> coordinates, long ttlMs) {
+            this.coordinates = coordinates;
+            this.expiresAt = System.currentTimeMillis() + ttlMs;
         }
-        
-        // Update workers without location data
-        List<Worker> workersWithoutLocation = workerRepository.findAll().stream()
-            .filter(worker -> worker.getLatitude() == null || worker.getLongitude() == null)
-            .toList();
-        
-        log.info("Found {} workers without location data", workersWithoutLocation.size());
-        
-        for (Worker worker : workersWithoutLocation) {
-            try {
-                // Build search query from existing address components
-                String searchQuery = buildSearchQuery(worker.getCity(), worker.getUpazila(), worker.getDistrict());
-                
-                if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-                    log.debug("Geocoding for worker {}: {}", worker.getWorkerId(), searchQuery);
-                    
-                    Map<String, Double> coordinates = geocodeAddress(searchQuery);
-                    
-                    if (coordinates != null && !coordinates.isEmpty() && 
-                        coordinates.containsKey("latitude") && coordinates.containsKey("longitude")) {
-                        
-                        worker.setLatitude(coordinates.get("latitude"));
-                        worker.setLongitude(coordinates.get("longitude"));
-                        
-                        // Get detailed address info using reverse geocoding
-                        try {
-                            Map<String, String> addressInfo = reverseGeocode(
-                                coordinates.get("latitude"), coordinates.get("longitude")
-                            );
-                            
-                            if (addressInfo != null) {
-                                // Update address components if they're better than existing ones
-                                if (addressInfo.get("city") != null && !addressInfo.get("city").equals("Unknown City")) {
-                                    worker.setCity(addressInfo.get("city"));
-                                }
-                                if (addressInfo.get("upazila") != null && !addressInfo.get("upazila").equals("Unknown Area")) {
-                                    worker.setUpazila(addressInfo.get("upazila"));
-                                }
-                                if (addressInfo.get("district") != null && !addressInfo.get("district").equals("Unknown District")) {
-                                    worker.setDistrict(addressInfo.get("district"));
-                                }
-                                if (addressInfo.get("fullAddress") != null) {
-                                    worker.setFullAddress(addressInfo.get("fullAddress"));
-                                }
-                            }
-                        } catch (Exception e) {
-                            log.warn("Error getting detailed address for worker {}: {}", worker.getWorkerId(), e.getMessage());
-                        }
-                        
-                        workerRepository.save(worker);
-                        log.debug("Updated location for worker {}", worker.getWorkerId());
-                    } else {
-                        log.warn("Could not geocode location for worker {}: {}", worker.getWorkerId(), searchQuery);
-                    }
-                } else {
-                    log.warn("Insufficient address data for worker {}", worker.getWorkerId());
-                }
-            } catch (Exception e) {
-                log.error("Error updating location for worker {}: {}", worker.getWorkerId(), e.getMessage());
-            }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
         }
-        
-        log.info("Completed populating location data for existing users");
     }
-    
-    /**
-     * Build a search query from existing address components
-     */
-    private String buildSearchQuery(String city, String upazila, String district) {
-        StringBuilder query = new StringBuilder();
-        
-        if (city != null && !city.trim().isEmpty()) {
-            query.append(city.trim());
-        }
-        
-        if (upazila != null && !upazila.trim().isEmpty()) {
-            if (query.length() > 0) query.append(", ");
-            query.append(upazila.trim());
-        }
-        
-        if (district != null && !district.trim().isEmpty()) {
-            if (query.length() > 0) query.append(", ");
-            query.append(district.trim());
-        }
-        
-        // Always add Bangladesh for better results
-        if (query.length() > 0) {
-            query.append(", Bangladesh");
+
+    private static final class GeocodeThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "geocode-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
-        
-        return query.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.Worker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized top-K nearest located workers per (customer, field), kept in memory on top of
+ * {@link WorkerLocationIndex}. A list is built on first use and then maintained incrementally:
+ * when a worker joins or moves it is removed from every list and re-inserted where it now ranks,
+ * and a list whose stored origin no longer matches the customer's coordinates is rebuilt.
+ * Each list stays an exact prefix of the true nearest-first order, so pages inside it are served
+ * without a spatial query; pages beyond it fall through to the index.
+ */
+@Component
+public class NearestWorkerCache {
+
+    private final WorkerLocationIndex workerLocationIndex;
+    private final int topK;
+    private final Map<String, TopK> lists;
+
+    public NearestWorkerCache(WorkerLocationIndex workerLocationIndex,
+                              @Value("${app.recommendations.nearest-workers.top-k:100}") int topK,
+                              @Value("${app.recommendations.nearest-workers.max-lists:5000}") int maxLists) {
+        this.workerLocationIndex = workerLocationIndex;
+        this.topK = topK;
+        this.lists = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TopK> eldest) {
+                return size() > maxLists;
+            }
+        };
+    }
+
+    /**
+     * Worker ids of a field nearest to the customer, same contract as {@link WorkerLocationIndex#findNearest}
+     */
+    public List<Integer> findNearest(Integer customerId, String field, double latitude, double longitude,
+                                     int offset, int limit) {
+        if (limit <= 0 || offset < 0) {
+            return new ArrayList<>();
+        }
+
+        synchronized (this) {
+            String key = customerId + ":" + WorkerLocationIndex.fieldKey(field);
+            TopK list = lists.get(key);
+            if (list == null || list.originLatitude != latitude || list.originLongitude != longitude) {
+                list = build(field, latitude, longitude);
+                lists.put(key, list);
+            }
+
+            // Positions past the list (farther workers, or unlocated ones) are only known to the index
+            if ((long) offset + limit <= list.size) {
+                List<Integer> result = new ArrayList<>(limit);
+                for (int i = offset; i < offset + limit; i++) {
+                    result.add(list.workerIds[i]);
+                }
+                return result;
+            }
+        }
+
+        return workerLocationIndex.findNearest(field, latitude, longitude, offset, limit);
+    }
+
+    /**
+     * Re-rank a worker in every cached list after it joined or changed field or location.
+     * Must be called after {@link WorkerLocationIndex#upsert} so lists built in between already agree.
+     */
+    public synchronized void workerChanged(Worker worker) {
+        if (worker == null || worker.getWorkerId() == null) {
+            return;
+        }
+
+        String fieldKey = WorkerLocationIndex.fieldKey(worker.getField());
+        boolean located = worker.getLatitude() != null && worker.getLongitude() != null;
+        for (TopK list : lists.values()) {
+            list.remove(worker.getWorkerId());
+            if (located && (list.fieldKey.equals("*") || list.fieldKey.equals(fieldKey))) {
+                double distance = GeoDistance.haversineKm(list.originLatitude, list.originLongitude,
+                    worker.getLatitude().doubleValue(), worker.getLongitude().doubleValue());
+                list.insert(worker.getWorkerId(), distance, topK);
+            }
+        }
+    }
+
+    private TopK build(String field, double latitude, double longitude) {
+        List<WorkerLocationIndex.Neighbor> nearest = workerLocationIndex.findNearestLocated(field, latitude, longitude, topK);
+        TopK list = new TopK(WorkerLocationIndex.fieldKey(field), latitude, longitude, topK);
+        for (WorkerLocationIndex.Neighbor neighbor : nearest) {
+            list.workerIds[list.size] = neighbor.getWorkerId();
+            list.distances[list.size] = neighbor.getDistanceKm();
+            list.size++;
+        }
+        // Fewer than K located workers means the list holds all of them
+        list.exhaustive = list.size < topK;
+        return list;
+    }
+
+    /**
+     * Nearest-first worker ids and distances in parallel primitive arrays
+     */
+    private static final class TopK {
+        private final String fieldKey;
+        private final double originLatitude;
+        private final double originLongitude;
+        private int[] workerIds;
+        private double[] distances;
+        private int size;
+        private boolean exhaustive;
+
+        private TopK(String fieldKey, double originLatitude, double originLongitude, int capacity) {
+            this.fieldKey = fieldKey;
+            this.originLatitude = originLatitude;
+            this.originLongitude = originLongitude;
+            this.workerIds = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        private void remove(int workerId) {
+            for (int i = 0; i < size; i++) {
+                if (workerIds[i] == workerId) {
+                    System.arraycopy(workerIds, i + 1, workerIds, i, size - i - 1);
+                    System.arraycopy(distances, i + 1, distances, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        private void insert(int workerId, double distance, int topK) {
+            int position = 0;
+            while (position < size && (distances[position] < distance
+                    || (distances[position] == distance && workerIds[position] < workerId))) {
+                position++;
+            }
+            // Past the end of a non-exhaustive list the worker's rank is unknown relative to uncached workers
+            if (position == size && !exhaustive) {
+                return;
+            }
+
+            if (size == workerIds.length) {
+                workerIds = Arrays.copyOf(workerIds, size + 1);
+                distances = Arrays.copyOf(distances, size + 1);
+            }
+            System.arraycopy(workerIds, position, workerIds, position + 1, size - position);
+            System.arraycopy(distances, position, distances, position + 1, size - position);
+            workerIds[position] = workerId;
+            distances[position] = distance;
+            size++;
+
+            if (size > topK) {
+                size = topK;
+                exhaustive = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.KajChai.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Outbound HTTP client for Nominatim shared by every geocoding call.
+ * Concurrent requests with the same key share a single in-flight call, and all calls pass
+ * through a token bucket that enforces the provider's request rate. A caller that would have
+ * to wait longer than the configured bound for a token is rejected immediately instead of
+ * holding a request thread, which also caps how many callers can queue behind the limiter.
+ * Batch jobs use the background variants, which share the same bucket but wait for a token.
+ */
+@Component
+@Slf4j
+public class NominatimClient {
+
+    private static final String BASE_URL = "https://nominatim.openstreetmap.org";
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    // Token bucket state, guarded by this
+    private final double permitsPerSecond;
+    private final double burst;
+    private final long maxWaitNanos;
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final long coalescedWaitMs;
+    private final Counter coalescedCalls;
+    private final Counter rejectedCalls;
+    private final Timer queueWait;
+
+    public NominatimClient(MeterRegistry meterRegistry,
+                           @Value("${app.geocode.nominatim.requests-per-second:1.0}") double permitsPerSecond,
+                           @Value("${app.geocode.nominatim.burst:1}") int burst,
+                           @Value("${app.geocode.nominatim.max-wait-ms:3000}") long maxWaitMs,
+                           @Value("${app.geocode.nominatim.connect-timeout-ms:3000}") int connectTimeoutMs,
+                           @Value("${app.geocode.nominatim.read-timeout-ms:5000}") int readTimeoutMs,
+                           @Value("${app.geocode.nominatim.user-agent:KajChai/1.0}") String userAgent) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(requestFactory);
+        // Nominatim's usage policy requires an identifying User-Agent
+        this.restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().set("User-Agent", userAgent);
+            return execution.execute(request, body);
+        });
+
+        this.meterRegistry = meterRegistry;
+        this.permitsPerSecond = Math.max(permitsPerSecond, 0.01);
+        this.burst = Math.max(burst, 1);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.tokens = this.burst;
+        this.lastRefillNanos = System.nanoTime();
+
+        // A follower never waits longer than the leader can take in the worst case
+        this.coalescedWaitMs = maxWaitMs + connectTimeoutMs + readTimeoutMs;
+        this.coalescedCalls = meterRegistry.counter("geocode.nominatim.coalesced");
+        this.rejectedCalls = meterRegistry.counter("geocode.nominatim.rejected");
+        this.queueWait = meterRegistry.timer("geocode.nominatim.queue.wait");
+        meterRegistry.gauge("geocode.nominatim.inflight", inFlight, Map::size);
+    }
+
+    /**
+     * GET /search with the given query string, coalesced on key
+     */
+    public String search(String key, String query) {
+        return get("search", key, BASE_URL + "/search?" + query, false);
+    }
+
+    /**
+     * GET /search for batch jobs: waits as long as it takes for a token instead of being rejected,
+     * and never borrows ahead, so interactive callers keep priority on the limiter
+     */
+    public String searchInBackground(String key, String query) {
+        return get("search", key, BASE_URL + "/search?" + query, true);
+    }
+
+    /**
+     * GET /reverse with the given query string, coalesced on key
+     */
+    public String reverse(String key, String query) {
+        return get("reverse", key, BASE_URL + "/reverse?" + query, false);
+    }
+
+    /**
+     * GET /reverse for batch jobs, paced like {@link #searchInBackground}
+     */
+    public String reverseInBackground(String key, String query) {
+        return get("reverse", key, BASE_URL + "/reverse?" + query, true);
+    }
+
+    private String get(String operation, String key, String url, boolean background) {
+        String flightKey = operation + ":" + key;
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(flightKey, call);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return awaitLeader(flightKey, existing);
+        }
+
+        try {
+            String response = execute(operation, url, background);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, call);
+        }
+    }
+
+    private String awaitLeader(String flightKey, CompletableFuture<String> leader) {
+        try {
+            return leader.get(coalescedWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for geocoding request " + flightKey);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for geocoding request " + flightKey);
+        }
+    }
+
+    private String execute(String operation, String url, boolean background) {
+        if (background) {
+            awaitPermit();
+        } else {
+            acquirePermit(operation);
+        }
+
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return restTemplate.getForObject(url, String.class);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("geocode.nominatim.requests")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void acquirePermit(String operation) {
+        long waitNanos = reserve();
+        if (waitNanos < 0) {
+            rejectedCalls.increment();
+            log.warn("Nominatim rate limit saturated, rejecting {} request", operation);
+            throw new RuntimeException("Geocoding service is busy, please try again shortly");
+        }
+
+        queueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                // Cancelled before sending, so the token goes back to the next caller
+                refund();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for geocoding rate limit");
+            }
+        }
+    }
+
+    private void awaitPermit() {
+        long start = System.nanoTime();
+        try {
+            long waitNanos;
+            while ((waitNanos = tryTake()) > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for geocoding rate limit");
+        }
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Take one token, going into debt if the bucket is empty. Returns how long the caller must
+     * wait before its token becomes valid, or -1 (taking nothing) if that exceeds the wait bound.
+     */
+    private synchronized long reserve() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+
+        long waitNanos = (long) ((1 - tokens) / permitsPerSecond * 1_000_000_000.0);
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        tokens -= 1;
+        return waitNanos;
+    }
+
+    /**
+     * Take one token only if a whole one is available. Returns 0 when taken, otherwise how long
+     * until one should be, after which the caller tries again.
+     */
+    private synchronized long tryTake() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) ((1 - tokens) / permitsPerSecond * 1_000_000_000.0));
+    }
+
+    // Caller holds the lock
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerSecond / 1_000_000_000.0);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Give back a token whose request was never sent
+     */
+    private synchronized void refund() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+}
@@ -25,6 +25,7 @@ public class NotificationService {
     private final WorkerNotificationRepository workerNotificationRepository;
     private final CustomerRepository customerRepository;
     private final WorkerRepository workerRepository;
+    private final ReminderCounterService reminderCounterService;
     
     // Customer notification methods
     public CustomerNotification createCustomerNotification(Customer customer, String message) {
@@ -33,7 +34,9 @@ public class NotificationService {
                 .message(message)
                 .status(NotificationStatus.UNREAD)
                 .build();
-        return customerNotificationRepository.save(notification);
+        CustomerNotification saved = customerNotificationRepository.save(notification);
+        reminderCounterService.invalidateCustomer(customer.getCustomerId());
+        return saved;
     }
     
     public List<NotificationResponse> getNotificationsByCustomer(Integer customerId) {
@@ -70,7 +73,9 @@ public class NotificationService {
                 .message(message)
                 .status(NotificationStatus.UNREAD)
                 .build();
-        return workerNotificationRepository.save(notification);
+        WorkerNotification saved = workerNotificationRepository.save(notification);
+        reminderCounterService.invalidateWorker(worker.getWorkerId());
+        return saved;
     }
     
     public List<NotificationResponse> getNotificationsByWorker(Integer workerId) {
@@ -112,6 +117,7 @@ public class NotificationService {
             
             notification.setStatus(NotificationStatus.READ);
             customerNotificationRepository.save(notification);
+            reminderCounterService.invalidateCustomer(userId);
         } else if ("WORKER".equals(userRole)) {
             WorkerNotification notification = workerNotificationRepository.findById(notificationId)
                     .orElseThrow(() -> new RuntimeException("Worker notification not found"));
@@ -122,6 +128,7 @@ public class NotificationService {
             
             notification.setStatus(NotificationStatus.READ);
             workerNotificationRepository.save(notification);
+            reminderCounterService.invalidateWorker(userId);
         } else {
             throw new RuntimeException("Invalid user role");
         }
@@ -135,12 +142,14 @@ public class NotificationService {
             List<CustomerNotification> unreadNotifications = customerNotificationRepository.findByCustomerAndStatusOrderByNotificationTimeDesc(customer, NotificationStatus.UNREAD);
             unreadNotifications.forEach(notification -> notification.setStatus(NotificationStatus.READ));
             customerNotificationRepository.saveAll(unreadNotifications);
+            reminderCounterService.invalidateCustomer(userId);
         } else if ("WORKER".equals(userRole)) {
             Worker worker = workerRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("Worker not found"));
             List<WorkerNotification> unreadNotifications = workerNotificationRepository.findByWorkerAndStatusOrderByNotificationTimeDesc(worker, NotificationStatus.UNREAD);
             unreadNotifications.forEach(notification -> notification.setStatus(NotificationStatus.READ));
             workerNotificationRepository.saveAll(unreadNotifications);
+            reminderCounterService.invalidateWorker(userId);
         } else {
             throw new RuntimeException("Invalid user role");
         }
@@ -157,6 +166,7 @@ public class NotificationService {
             }
             
             customerNotificationRepository.delete(notification);
+            reminderCounterService.invalidateCustomer(userId);
         } else if ("WORKER".equals(userRole)) {
             WorkerNotification notification = workerNotificationRepository.findById(notificationId)
                     .orElseThrow(() -> new RuntimeException("Worker notification not found"));
@@ -166,6 +176,7 @@ public class NotificationService {
             }
             
             workerNotificationRepository.delete(notification);
+            reminderCounterService.invalidateWorker(userId);
         } else {
             throw new RuntimeException("Invalid user role");
         }
@@ -183,7 +194,7 @@ public class NotificationService {
     private NotificationResponse convertWorkerNotificationToResponse(WorkerNotification notification) {
         return NotificationResponse.builder()
                 .notificationId(notification.getNotificationId())
-                .message(notification.getMessage())
+                .message(notification.getText())
                 .status(notification.getStatus())
                 .notificationTime(notification.getNotificationTime())
                 .build();
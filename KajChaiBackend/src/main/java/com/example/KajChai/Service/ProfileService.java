@@ -17,6 +17,7 @@ import com.example.KajChai.Repository.CustomerRepository;
 import com.example.KajChai.Repository.WorkerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -24,8 +25,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -35,6 +38,9 @@ public class ProfileService {
     private final WorkerRepository workerRepository;
     private final AdminRepository adminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final WorkerLocationIndex workerLocationIndex;
+    private final NearestWorkerCache nearestWorkerCache;
+    private final ChatRoomDirectory chatRoomDirectory;
 
     public CustomerProfileResponse getCustomerProfile(String email) {
         Optional<Customer> customerOpt = customerRepository.findByGmail(email);
@@ -135,6 +141,7 @@ public class ProfileService {
         }
         
         Customer updatedCustomer = customerRepository.save(customer);
+        chatRoomDirectory.evictCustomer(updatedCustomer.getCustomerId());
         
         return CustomerProfileResponse.builder()
                 .customerId(updatedCustomer.getCustomerId())
@@ -186,6 +193,9 @@ public class ProfileService {
         }
         
         Worker updatedWorker = workerRepository.save(worker);
+        workerLocationIndex.upsert(updatedWorker);
+        nearestWorkerCache.workerChanged(updatedWorker);
+        chatRoomDirectory.evictWorker(updatedWorker.getWorkerId());
         
         return WorkerProfileResponse.builder()
                 .workerId(updatedWorker.getWorkerId())
@@ -246,6 +256,35 @@ public class ProfileService {
         return workersPage.map(this::convertWorkerToResponse);
     }
 
+    /**
+     * Page of workers ordered by distance from the customer's location across the whole result set.
+     * Falls back to the regular listing when the customer has no coordinates.
+     */
+    public Page<WorkerProfileResponse> getWorkersNearCustomerPaginated(String field, String customerEmail, Pageable pageable) {
+        Optional<Customer> customerOpt = customerRepository.findByGmail(customerEmail);
+        if (customerOpt.isEmpty()) {
+            throw new RuntimeException("Customer not found");
+        }
+
+        Customer customer = customerOpt.get();
+        if (customer.getLatitude() == null || customer.getLongitude() == null) {
+            return getAllWorkersPaginated(field, pageable);
+        }
+
+        List<Integer> workerIds = nearestWorkerCache.findNearest(customer.getCustomerId(), field,
+                customer.getLatitude(), customer.getLongitude(), (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Integer, Worker> workersById = workerRepository.findAllById(workerIds).stream()
+                .collect(Collectors.toMap(Worker::getWorkerId, Function.identity()));
+
+        List<WorkerProfileResponse> workers = workerIds.stream()
+                .map(workersById::get)
+                .filter(worker -> worker != null)
+                .map(this::convertWorkerToResponse)
+                .toList();
+
+        return new PageImpl<>(workers, pageable, workerLocationIndex.count(field));
+    }
+
     public List<WorkerProfileResponse> sortWorkersByLocationForCustomer(List<WorkerProfileResponse> workers, String customerEmail) {
         Optional<Customer> customerOpt = customerRepository.findByGmail(customerEmail);
         if (customerOpt.isEmpty()) {
@@ -253,12 +292,21 @@ public class ProfileService {
         }
 
         Customer customer = customerOpt.get();
+        if (customer.getLatitude() == null || customer.getLongitude() == null) {
+            return workers;
+        }
         double customerLat = customer.getLatitude();
         double customerLon = customer.getLongitude();
 
+        // Each distance is computed once; workers without coordinates (NaN) sort last
         return workers.stream()
-                .sorted(Comparator.comparingDouble(worker -> 
-                    calculateDistance(customerLat, customerLon, worker.getLatitude(), worker.getLongitude())))
+                .map(worker -> Map.entry(worker,
+                    worker.getLatitude() == null || worker.getLongitude() == null
+                        ? Double.NaN
+                        : GeoDistance.haversineKm(customerLat, customerLon,
+                            worker.getLatitude().doubleValue(), worker.getLongitude().doubleValue())))
+                .sorted(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
                 .toList();
     }
 
@@ -286,18 +334,6 @@ public class ProfileService {
                 .build();
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Earth's radius in kilometers
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return R * c; // Distance in kilometers
-    }
-    
     public List<WorkerSearchResult> searchWorkers(WorkerSearchRequest request) {
         // Ensure query is not empty
         if (request.getQuery() == null || request.getQuery().trim().isEmpty()) {
@@ -0,0 +1,161 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.Customer;
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.Repository.CustomerRepository;
+import com.example.KajChai.Repository.WorkerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory dashboard badge counters (unread chats, unread notifications, pending bookings) per user.
+ * Write paths invalidate the affected users instead of adjusting counts, so no path can leave a
+ * counter off by one; the next poll recomputes all three counts in a single query and later
+ * polls are served from memory. Inside a transaction the entry is dropped again after commit,
+ * so a poll racing the commit cannot keep the pre-commit counts.
+ */
+@Service
+public class ReminderCounterService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerRepository customerRepository;
+    private final WorkerRepository workerRepository;
+    // Safety net for writes that bypass invalidation, such as admin deletes
+    private final long maxAgeMillis;
+
+    private final Map<Integer, Counters> customerCounters = new ConcurrentHashMap<>();
+    private final Map<Integer, Counters> workerCounters = new ConcurrentHashMap<>();
+    private final Map<String, Integer> customerIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Integer> workerIdsByEmail = new ConcurrentHashMap<>();
+
+    public ReminderCounterService(JdbcTemplate jdbcTemplate,
+                                  CustomerRepository customerRepository,
+                                  WorkerRepository workerRepository,
+                                  @Value("${app.reminders.max-age-seconds:300}") long maxAgeSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.customerRepository = customerRepository;
+        this.workerRepository = workerRepository;
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+    }
+
+    public Integer resolveCustomerId(String email) {
+        Integer customerId = customerIdsByEmail.get(email);
+        if (customerId == null) {
+            customerId = customerRepository.findByGmail(email)
+                    .map(Customer::getCustomerId)
+                    .orElseThrow(() -> new RuntimeException("Customer not found with email: " + email));
+            customerIdsByEmail.put(email, customerId);
+        }
+        return customerId;
+    }
+
+    public Integer resolveWorkerId(String email) {
+        Integer workerId = workerIdsByEmail.get(email);
+        if (workerId == null) {
+            workerId = workerRepository.findByGmail(email)
+                    .map(Worker::getWorkerId)
+                    .orElseThrow(() -> new RuntimeException("Worker not found with email: " + email));
+            workerIdsByEmail.put(email, workerId);
+        }
+        return workerId;
+    }
+
+    // Transactional so the JDBC read shares the request's connection instead of waiting for a second one
+    @Transactional(readOnly = true)
+    public Counters getCustomerCounters(Integer customerId) {
+        Counters counters = customerCounters.get(customerId);
+        if (counters == null || counters.isOlderThan(maxAgeMillis)) {
+            counters = jdbcTemplate.queryForObject(
+                "SELECT " +
+                "(SELECT COALESCE(SUM(customer_unread_count), 0) FROM chat_rooms WHERE customer_id = ?) AS unread_chats, " +
+                "(SELECT COUNT(*) FROM customer_notification WHERE customer_id = ? AND status = 'UNREAD') AS unread_notifications, " +
+                "(SELECT COUNT(*) FROM hire_post WHERE customer_id = ? AND status = 'BOOKED') AS pending",
+                (rs, rowNum) -> new Counters(rs.getLong("unread_chats"), rs.getLong("unread_notifications"), rs.getLong("pending")),
+                customerId, customerId, customerId);
+            customerCounters.put(customerId, counters);
+        }
+        return counters;
+    }
+
+    @Transactional(readOnly = true)
+    public Counters getWorkerCounters(Integer workerId) {
+        Counters counters = workerCounters.get(workerId);
+        if (counters == null || counters.isOlderThan(maxAgeMillis)) {
+            counters = jdbcTemplate.queryForObject(
+                "SELECT " +
+                "(SELECT COALESCE(SUM(worker_unread_count), 0) FROM chat_rooms WHERE worker_id = ?) AS unread_chats, " +
+                "(SELECT COUNT(*) FROM worker_notification WHERE worker_id = ? AND status = 'UNREAD') AS unread_notifications, " +
+                "(SELECT COUNT(*) FROM booking b JOIN hire_post hp ON hp.post_id = b.post_id " +
+                "WHERE b.worker_id = ? AND hp.status = 'BOOKED') AS pending",
+                (rs, rowNum) -> new Counters(rs.getLong("unread_chats"), rs.getLong("unread_notifications"), rs.getLong("pending")),
+                workerId, workerId, workerId);
+            workerCounters.put(workerId, counters);
+        }
+        return counters;
+    }
+
+    public void invalidateCustomer(Integer customerId) {
+        if (customerId != null) {
+            invalidate(customerCounters, customerId);
+        }
+    }
+
+    public void invalidateWorker(Integer workerId) {
+        if (workerId != null) {
+            invalidate(workerCounters, workerId);
+        }
+    }
+
+    private void invalidate(Map<Integer, Counters> counters, Integer userId) {
+        counters.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counters.remove(userId);
+                }
+            });
+        }
+    }
+
+    public static final class Counters {
+        private final long unreadChatCount;
+        private final long unreadNotificationCount;
+        private final long pendingCount;
+        private final long computedAtMillis = System.currentTimeMillis();
+
+        private Counters(long unreadChatCount, long unreadNotificationCount, long pendingCount) {
+            this.unreadChatCount = unreadChatCount;
+            this.unreadNotificationCount = unreadNotificationCount;
+            this.pendingCount = pendingCount;
+        }
+
+        public long getUnreadChatCount() {
+            return unreadChatCount;
+        }
+
+        public long getUnreadNotificationCount() {
+            return unreadNotificationCount;
+        }
+
+        public long getPendingCount() {
+            return pendingCount;
+        }
+
+        // Same counts, same tag: lets an unchanged badge poll be answered with 304
+        public String getETag() {
+            return "\"" + unreadChatCount + "-" + unreadNotificationCount + "-" + pendingCount + "\"";
+        }
+
+        private boolean isOlderThan(long millis) {
+            return System.currentTimeMillis() - computedAtMillis > millis;
+        }
+    }
+}
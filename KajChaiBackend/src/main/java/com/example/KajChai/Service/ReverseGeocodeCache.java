@@ -0,0 +1,161 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.ReverseGeocodeCacheEntry;
+import com.example.KajChai.Repository.ReverseGeocodeCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Two-tier cache for reverse geocoding results: an in-process LRU in front of a Postgres table.
+ * Coordinates are quantized to a square grid so that nearby points share one entry.
+ */
+@Component
+@Slf4j
+public class ReverseGeocodeCache {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final ReverseGeocodeCacheRepository cacheRepository;
+    private final int gridMeters;
+    private final Duration ttl;
+    private final Map<String, Cached> memory;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Counter staleHits;
+
+    public ReverseGeocodeCache(ReverseGeocodeCacheRepository cacheRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.geocode.cache.grid-meters:50}") int gridMeters,
+                               @Value("${app.geocode.cache.ttl-days:30}") long ttlDays,
+                               @Value("${app.geocode.cache.max-entries:10000}") int maxEntries) {
+        this.cacheRepository = cacheRepository;
+        this.gridMeters = gridMeters;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.memory = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.memoryHits = meterRegistry.counter("geocode.reverse.cache", "result", "memory_hit");
+        this.databaseHits = meterRegistry.counter("geocode.reverse.cache", "result", "db_hit");
+        this.misses = meterRegistry.counter("geocode.reverse.cache", "result", "miss");
+        this.staleHits = meterRegistry.counter("geocode.reverse.cache", "result", "stale");
+    }
+
+    /**
+     * Cached address components for the cell containing the point, or null on a miss.
+     * Entries older than the TTL are returned with {@link Cached#isFresh()} false so the
+     * caller can refresh them and still fall back to the old value if the refresh fails.
+     */
+    public Cached get(double latitude, double longitude) {
+        String key = cellKey(latitude, longitude);
+
+        Cached cached = memory.get(key);
+        if (cached != null) {
+            countHit(cached, memoryHits);
+            return cached;
+        }
+
+        try {
+            cached = cacheRepository.findById(key).map(this::fromEntry).orElse(null);
+        } catch (Exception e) {
+            log.warn("Reverse geocode cache lookup failed for {}: {}", key, e.getMessage());
+            cached = null;
+        }
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+
+        memory.put(key, cached);
+        countHit(cached, databaseHits);
+        return cached;
+    }
+
+    public void put(double latitude, double longitude, Map<String, String> components) {
+        String key = cellKey(latitude, longitude);
+        LocalDateTime now = LocalDateTime.now();
+        memory.put(key, new Cached(new HashMap<>(components), now));
+
+        try {
+            cacheRepository.save(ReverseGeocodeCacheEntry.builder()
+                    .cellKey(key)
+                    .city(components.get("city"))
+                    .upazila(components.get("upazila"))
+                    .district(components.get("district"))
+                    .division(components.get("division"))
+                    .fullAddress(components.get("fullAddress"))
+                    .resolvedAt(now)
+                    .build());
+        } catch (Exception e) {
+            // The in-memory tier still holds the value
+            log.warn("Failed to persist reverse geocode cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void countHit(Cached cached, Counter tier) {
+        if (cached.isFresh()) {
+            tier.increment();
+        } else {
+            staleHits.increment();
+        }
+    }
+
+    /**
+     * Key of the grid cell containing the point; points with the same key share a cache entry
+     */
+    public String cellKey(double latitude, double longitude) {
+        double latStep = gridMeters / METERS_PER_DEGREE;
+        long latCell = (long) Math.floor(latitude / latStep);
+
+        // Keep cells roughly square by widening the longitude step with the cell's latitude
+        double cellLatitude = (latCell + 0.5) * latStep;
+        double lonStep = latStep / Math.max(Math.cos(Math.toRadians(cellLatitude)), 0.01);
+        long lonCell = (long) Math.floor(longitude / lonStep);
+
+        return gridMeters + ":" + latCell + ":" + lonCell;
+    }
+
+    private Cached fromEntry(ReverseGeocodeCacheEntry entry) {
+        Map<String, String> components = new HashMap<>();
+        components.put("city", entry.getCity());
+        components.put("upazila", entry.getUpazila());
+        components.put("district", entry.getDistrict());
+        components.put("division", entry.getDivision());
+        components.put("fullAddress", entry.getFullAddress());
+        return new Cached(components, entry.getResolvedAt());
+    }
+
+    public final class Cached {
+        private final Map<String, String> components;
+        private final LocalDateTime resolvedAt;
+
+        private Cached(Map<String, String> components, LocalDateTime resolvedAt) {
+            this.components = components;
+            this.resolvedAt = resolvedAt;
+        }
+
+        public Map<String, String> getComponents() {
+            return new HashMap<>(components);
+        }
+
+        public boolean isFresh() {
+            return resolvedAt.plus(ttl).isAfter(LocalDateTime.now());
+        }
+    }
+}
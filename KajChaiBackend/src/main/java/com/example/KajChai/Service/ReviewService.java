@@ -11,10 +11,12 @@ import com.example.KajChai.Enum.JobField;
 import com.example.KajChai.Repository.CustomerRepository;
 import com.example.KajChai.Repository.ReviewRepository;
 import com.example.KajChai.Repository.WorkerRepository;
+import com.example.KajChai.Repository.WorkerStatsRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +31,7 @@ public class ReviewService {
     private final CustomerRepository customerRepository;
     private final CloudinaryService cloudinaryService;
     private final NotificationService notificationService;
+    private final WorkerStatsRepository workerStatsRepository;
     
     public List<String> getAllFields() {
         return Arrays.stream(JobField.values()).map(JobField::name).toList();
@@ -103,6 +106,9 @@ public class ReviewService {
                     .build();
             
             Review savedReview = reviewRepository.save(review);
+            if (reviewRequest.getStars() != null) {
+                workerStatsRepository.recordReview(worker.getWorkerId(), reviewRequest.getStars(), LocalDateTime.now());
+            }
             
             // Update worker's average rating
             updateWorkerRating(worker);
@@ -4,43 +4,63 @@ import com.example.KajChai.DTO.*;
 import com.example.KajChai.DatabaseEntity.*;
 import com.example.KajChai.Repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class WorkerDashboardService {
     
     private final WorkerRepository workerRepository;
     private final BookingRepository bookingRepository;
     private final ReviewRepository reviewRepository;
+    private final WorkerStatsRepository workerStatsRepository;
     
+    // Single row read; a worker with no bookings or reviews yet has no row
     public WorkerDashboardStatsResponse getWorkerDashboardStats(Integer workerId) {
-        Worker worker = workerRepository.findById(workerId)
-                .orElseThrow(() -> new RuntimeException("Worker not found"));
-        
-        // Get jobs completed count
-        Long jobsCompleted = bookingRepository.countCompletedJobsByWorkerId(workerId);
-        
-        // Get current rating from worker table
-        Float currentRating = worker.getRating();
-        
-        // Get total earned
-        Double totalEarned = bookingRepository.getTotalEarningsByWorkerId(workerId);
-        
-        // Get active jobs count (booked but not completed)
-        Long activeJobs = bookingRepository.countActiveJobsByWorkerId(workerId);
+        WorkerStats stats = workerStatsRepository.findById(workerId).orElse(null);
+        if (stats == null) {
+            return WorkerDashboardStatsResponse.builder()
+                    .jobsCompleted(0L)
+                    .currentRating(0.0f)
+                    .totalEarned(0.0)
+                    .activeJobs(0L)
+                    .build();
+        }
         
         return WorkerDashboardStatsResponse.builder()
-                .jobsCompleted(jobsCompleted != null ? jobsCompleted : 0L)
-                .currentRating(currentRating != null ? currentRating : 0.0f)
-                .totalEarned(totalEarned != null ? totalEarned : 0.0)
-                .activeJobs(activeJobs != null ? activeJobs : 0L)
+                .jobsCompleted(stats.getJobsCompleted())
+                .currentRating(stats.getReviewCount() > 0 ? (float) stats.getRatingSum() / stats.getReviewCount() : 0.0f)
+                .totalEarned(stats.getTotalEarned())
+                .activeJobs(stats.getActiveJobs())
                 .build();
     }
     
+    /**
+     * Recompute worker_stats from bookings and reviews, correcting any drift
+     */
+    public int rebuildWorkerStats() {
+        int rows = workerStatsRepository.rebuildAll(LocalDateTime.now());
+        log.info("Rebuilt worker stats for {} workers", rows);
+        return rows;
+    }
+    
+    // Also runs right after startup, which fills the table for existing workers
+    @Scheduled(fixedRate = 86400000) // Run daily
+    public void scheduledWorkerStatsRebuild() {
+        try {
+            rebuildWorkerStats();
+        } catch (Exception e) {
+            log.error("Failed to rebuild worker stats", e);
+        }
+    }
+    
     public List<HirePostResponse> getCurrentWorks(Integer workerId) {
         List<Booking> currentBookings = bookingRepository.findCurrentWorksByWorkerId(workerId);
         
@@ -0,0 +1,352 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.Repository.WorkerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory grid-cell spatial index over worker coordinates, partitioned by field.
+ * Answers "k nearest workers of field X around (lat, lon)" by scanning rings of cells
+ * outwards from the query cell, so only the neighbourhood of the query point is visited.
+ * Workers without coordinates are kept per field and ordered after located workers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkerLocationIndex implements ApplicationRunner {
+
+    private static final double KM_PER_DEGREE = Math.PI * GeoDistance.EARTH_RADIUS_KM / 180.0;
+
+    // Cell edge in degrees (~2.2 km of latitude)
+    private static final double CELL_SIZE_DEGREES = 0.02;
+
+    // Key used for the partition that holds every worker regardless of field
+    private static final String ALL_FIELDS = "*";
+
+    private final WorkerRepository workerRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedWorker> workers = new HashMap<>();
+    private final Map<String, FieldGrid> grids = new HashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Reload the whole index from the database
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = workerRepository.findAllLocationEntries();
+
+        lock.writeLock().lock();
+        try {
+            workers.clear();
+            grids.clear();
+            for (Object[] row : rows) {
+                insert((Integer) row[0], (String) row[1], (Double) row[2], (Double) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Worker location index built with {} workers in {} ms",
+            rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add a worker or move it to its current field and location
+     */
+    public void upsert(Worker worker) {
+        if (worker == null || worker.getWorkerId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            remove(worker.getWorkerId());
+            insert(worker.getWorkerId(), worker.getField(), worker.getLatitude(), worker.getLongitude());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void delete(Integer workerId) {
+        lock.writeLock().lock();
+        try {
+            remove(workerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of workers in a field (all fields when field is null or empty)
+     */
+    public int count(String field) {
+        lock.readLock().lock();
+        try {
+            FieldGrid grid = grids.get(fieldKey(field));
+            return grid == null ? 0 : grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Worker ids of a field ordered by distance from (latitude, longitude), ties broken by id.
+     * Workers without coordinates follow the located ones. Returns the slice [offset, offset + limit).
+     */
+    public List<Integer> findNearest(String field, double latitude, double longitude, int offset, int limit) {
+        List<Integer> result = new ArrayList<>();
+        if (limit <= 0 || offset < 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            FieldGrid grid = grids.get(fieldKey(field));
+            if (grid == null) {
+                return result;
+            }
+
+            int located = grid.locatedCount;
+            if (offset < located) {
+                int k = (int) Math.min((long) offset + limit, located);
+                List<Neighbor> nearest = grid.nearest(latitude, longitude, k);
+                for (int i = offset; i < nearest.size(); i++) {
+                    result.add(nearest.get(i).workerId);
+                }
+            }
+
+            if (result.size() < limit) {
+                int skip = Math.max(0, offset - located);
+                for (Integer workerId : grid.unlocated) {
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    result.add(workerId);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to k located workers of a field nearest to (latitude, longitude), nearest first, with distances
+     */
+    public List<Neighbor> findNearestLocated(String field, double latitude, double longitude, int k) {
+        lock.readLock().lock();
+        try {
+            FieldGrid grid = grids.get(fieldKey(field));
+            if (grid == null || grid.locatedCount == 0 || k <= 0) {
+                return new ArrayList<>();
+            }
+            return grid.nearest(latitude, longitude, Math.min(k, grid.locatedCount));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+    private void insert(Integer workerId, String field, Double latitude, Double longitude) {
+        IndexedWorker entry = new IndexedWorker(workerId, fieldKey(field), latitude, longitude);
+        workers.put(workerId, entry);
+        if (!ALL_FIELDS.equals(entry.fieldKey)) {
+            grids.computeIfAbsent(entry.fieldKey, key -> new FieldGrid()).add(entry);
+        }
+        grids.computeIfAbsent(ALL_FIELDS, key -> new FieldGrid()).add(entry);
+    }
+
+    // Callers must hold the write lock
+    private void remove(Integer workerId) {
+        IndexedWorker entry = workers.remove(workerId);
+        if (entry == null) {
+            return;
+        }
+        FieldGrid fieldGrid = ALL_FIELDS.equals(entry.fieldKey) ? null : grids.get(entry.fieldKey);
+        if (fieldGrid != null) {
+            fieldGrid.remove(entry);
+            if (fieldGrid.size() == 0) {
+                grids.remove(entry.fieldKey);
+            }
+        }
+        FieldGrid allGrid = grids.get(ALL_FIELDS);
+        if (allGrid != null) {
+            allGrid.remove(entry);
+        }
+    }
+
+    static String fieldKey(String field) {
+        if (field == null || field.isEmpty()) {
+            return ALL_FIELDS;
+        }
+        return field.toLowerCase(Locale.ROOT);
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    private static final class IndexedWorker {
+        private final Integer workerId;
+        private final String fieldKey;
+        private final boolean located;
+        private final double latitude;
+        private final double longitude;
+
+        private IndexedWorker(Integer workerId, String fieldKey, Double latitude, Double longitude) {
+            this.workerId = workerId;
+            this.fieldKey = fieldKey;
+            this.located = latitude != null && longitude != null;
+            this.latitude = located ? latitude : 0.0;
+            this.longitude = located ? longitude : 0.0;
+        }
+    }
+
+    public static final class Neighbor {
+        private final Integer workerId;
+        private final double distance;
+
+        private Neighbor(Integer workerId, double distance) {
+            this.workerId = workerId;
+            this.distance = distance;
+        }
+
+        public Integer getWorkerId() {
+            return workerId;
+        }
+
+        public double getDistanceKm() {
+            return distance;
+        }
+    }
+
+    private static final Comparator<Neighbor> NEAREST_FIRST = Comparator
+            .comparingDouble((Neighbor c) -> c.distance)
+            .thenComparing(c -> c.workerId);
+
+    private static final class FieldGrid {
+        private final Map<Long, List<IndexedWorker>> cells = new HashMap<>();
+        private final Set<Integer> unlocated = new TreeSet<>();
+        private int locatedCount;
+
+        // Bounds of every cell ever populated, used to stop the ring scan
+        private int minRow = Integer.MAX_VALUE;
+        private int maxRow = Integer.MIN_VALUE;
+        private int minCol = Integer.MAX_VALUE;
+        private int maxCol = Integer.MIN_VALUE;
+
+        private int size() {
+            return locatedCount + unlocated.size();
+        }
+
+        private void add(IndexedWorker entry) {
+            if (!entry.located) {
+                unlocated.add(entry.workerId);
+                return;
+            }
+            int row = cellIndex(entry.latitude);
+            int col = cellIndex(entry.longitude);
+            cells.computeIfAbsent(cellKey(row, col), key -> new ArrayList<>()).add(entry);
+            locatedCount++;
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minCol = Math.min(minCol, col);
+            maxCol = Math.max(maxCol, col);
+        }
+
+        private void remove(IndexedWorker entry) {
+            if (!entry.located) {
+                unlocated.remove(entry.workerId);
+                return;
+            }
+            long key = cellKey(cellIndex(entry.latitude), cellIndex(entry.longitude));
+            List<IndexedWorker> cell = cells.get(key);
+            if (cell != null && cell.removeIf(w -> w.workerId.equals(entry.workerId))) {
+                locatedCount--;
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+
+        /**
+         * The k nearest located workers, sorted nearest first
+         */
+        private List<Neighbor> nearest(double latitude, double longitude, int k) {
+            // Max-heap holding the best k neighbors seen so far
+            PriorityQueue<Neighbor> best = new PriorityQueue<>(k, NEAREST_FIRST.reversed());
+            int queryRow = cellIndex(latitude);
+            int queryCol = cellIndex(longitude);
+            int maxRing = Math.max(
+                Math.max(Math.abs(queryRow - minRow), Math.abs(queryRow - maxRow)),
+                Math.max(Math.abs(queryCol - minCol), Math.abs(queryCol - maxCol)));
+
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int row = queryRow - ring; row <= queryRow + ring; row++) {
+                    boolean edgeRow = row == queryRow - ring || row == queryRow + ring;
+                    int step = edgeRow ? 1 : 2 * ring;
+                    for (int col = queryCol - ring; col <= queryCol + ring; col += step) {
+                        List<IndexedWorker> cell = cells.get(cellKey(row, col));
+                        if (cell == null) {
+                            continue;
+                        }
+                        for (IndexedWorker entry : cell) {
+                            Neighbor neighbor = new Neighbor(entry.workerId,
+                                GeoDistance.haversineKm(latitude, longitude, entry.latitude, entry.longitude));
+                            if (best.size() < k) {
+                                best.add(neighbor);
+                            } else if (NEAREST_FIRST.compare(neighbor, best.peek()) < 0) {
+                                best.poll();
+                                best.add(neighbor);
+                            }
+                        }
+                    }
+                }
+
+                // Every point in ring r + 1 is at least r full cells away from the query point
+                if (best.size() == k && best.peek().distance <= ringLowerBoundKm(latitude, ring)) {
+                    break;
+                }
+            }
+
+            List<Neighbor> sorted = new ArrayList<>(best);
+            sorted.sort(NEAREST_FIRST);
+            return sorted;
+        }
+
+        private static double ringLowerBoundKm(double latitude, int ring) {
+            double farthestLatitude = Math.min(89.0, Math.abs(latitude) + (ring + 1) * CELL_SIZE_DEGREES);
+            double cellKm = CELL_SIZE_DEGREES * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+            return ring * cellKm;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.Enum.NotificationStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notifies every applicant of a hire post once the customer's selection has committed.
+ * Runs on the async executor so the booking transaction never waits on it. Each outcome's message
+ * is stored once as a notification template and the per-applicant rows only reference it; the
+ * templates and all batches commit together, and transient database errors are retried.
+ */
+@Component
+@Slf4j
+public class WorkerSelectionFanout {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReminderCounterService reminderCounterService;
+    private final Timer lag;
+
+    public WorkerSelectionFanout(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry, ReminderCounterService reminderCounterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.reminderCounterService = reminderCounterService;
+        this.lag = meterRegistry.timer("notifications.fanout.lag");
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void onWorkerSelected(WorkerSelected event) {
+        try {
+            String selectedMessage = String.format(
+                "Congratulations! You have been selected for the job: %s. The customer will contact you soon.",
+                event.getJobSummary());
+            String rejectedMessage = String.format(
+                "Thank you for applying to the job: %s. Unfortunately, another worker has been selected for this position.",
+                event.getJobSummary());
+
+            List<Integer> applicantIds = jdbcTemplate.queryForList(
+                "SELECT worker_id FROM post_application_mapping WHERE post_id = ?", Integer.class, event.getPostId());
+            if (applicantIds.isEmpty()) {
+                return;
+            }
+
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                        insertNotifications(applicantIds, event.getSelectedWorkerId(), selectedMessage, rejectedMessage));
+                    break;
+                } catch (CannotCreateTransactionException | DataAccessResourceFailureException | TransientDataAccessException e) {
+                    // Nothing was committed, so the whole fanout can run again
+                    if (attempt == MAX_ATTEMPTS) {
+                        throw e;
+                    }
+                    log.warn("Selection notifications for hire post {} hit a transient database error, retrying: {}",
+                        event.getPostId(), e.getMessage());
+                    Thread.sleep(RETRY_DELAY_MS * attempt);
+                }
+            }
+            applicantIds.forEach(reminderCounterService::invalidateWorker);
+
+            meterRegistry.counter("notifications.fanout.rows", "type", "worker_selection").increment(applicantIds.size());
+            lag.record(System.nanoTime() - event.getCreatedAtNanos(), TimeUnit.NANOSECONDS);
+            log.info("Sent selection notifications for hire post {} to {} applicants", event.getPostId(), applicantIds.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            meterRegistry.counter("notifications.fanout.failures", "type", "worker_selection").increment();
+            log.error("Interrupted while sending selection notifications for hire post {}", event.getPostId());
+        } catch (Exception e) {
+            meterRegistry.counter("notifications.fanout.failures", "type", "worker_selection").increment();
+            log.error("Failed to send selection notifications for hire post {}", event.getPostId(), e);
+        }
+    }
+
+    private void insertNotifications(List<Integer> applicantIds, Integer selectedWorkerId,
+                                     String selectedMessage, String rejectedMessage) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer selectedTemplateId = insertTemplate(selectedMessage, now);
+        Integer rejectedTemplateId = insertTemplate(rejectedMessage, now);
+
+        for (int start = 0; start < applicantIds.size(); start += BATCH_SIZE) {
+            List<Integer> batch = applicantIds.subList(start, Math.min(start + BATCH_SIZE, applicantIds.size()));
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO worker_notification (worker_id, template_id, status, notification_time) VALUES (?, ?, ?, ?)",
+                batch, batch.size(), (ps, workerId) -> {
+                    ps.setInt(1, workerId);
+                    ps.setInt(2, workerId.equals(selectedWorkerId) ? selectedTemplateId : rejectedTemplateId);
+                    ps.setString(3, NotificationStatus.UNREAD.name());
+                    ps.setTimestamp(4, now);
+                });
+        }
+    }
+
+    private Integer insertTemplate(String message, Timestamp now) {
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO notification_template (message, created_at) VALUES (?, ?) RETURNING template_id",
+            Integer.class, message, now);
+    }
+
+    /**
+     * Published by HirePostService when a customer books a worker for a post
+     */
+    public static final class WorkerSelected {
+        private final Integer postId;
+        private final Integer selectedWorkerId;
+        private final String jobSummary;
+        private final long createdAtNanos = System.nanoTime();
+
+        public WorkerSelected(Integer postId, Integer selectedWorkerId, String jobSummary) {
+            this.postId = postId;
+            this.selectedWorkerId = selectedWorkerId;
+            this.jobSummary = jobSummary;
+        }
+
+        public Integer getPostId() {
+            return postId;
+        }
+
+        public Integer getSelectedWorkerId() {
+            return selectedWorkerId;
+        }
+
+        public String getJobSummary() {
+            return jobSummary;
+        }
+
+        public long getCreatedAtNanos() {
+            return createdAtNanos;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.KajChai.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BangladeshGazetteerTest {
+
+    private final BangladeshGazetteer gazetteer = new BangladeshGazetteer(80, 15);
+
+    @Test
+    void resolvesDistrictCentroidsToThemselves() {
+        assertUnits(gazetteer.resolve(23.8103, 90.4125), "Dhaka", "Dhaka");
+        assertUnits(gazetteer.resolve(24.8949, 91.8687), "Sylhet", "Sylhet");
+    }
+
+    @Test
+    void resolvesToNearestDistrict() {
+        // Just north of Gazipur's centroid, well past the midpoint from Dhaka
+        assertUnits(gazetteer.resolve(24.02, 90.42), "Gazipur", "Dhaka");
+        // Just east of Narayanganj's centroid
+        assertUnits(gazetteer.resolve(23.62, 90.51), "Narayanganj", "Dhaka");
+    }
+
+    @Test
+    void pointsOutsideBangladeshAreNotResolved() {
+        assertThat(gazetteer.resolve(22.5726, 87.9)).isNull(); // West of the bounding box
+        assertThat(gazetteer.resolve(27.7172, 85.3240)).isNull(); // Kathmandu
+        assertThat(gazetteer.resolve(0, 0)).isNull();
+    }
+
+    @Test
+    void pointsTooFarFromAnyCentroidAreNotResolved() {
+        BangladeshGazetteer strict = new BangladeshGazetteer(1, 1);
+        assertThat(strict.resolve(23.8103, 90.4125)).isNotNull();
+        assertThat(strict.resolve(23.9, 90.2)).isNull();
+    }
+
+    @Test
+    void districtNamesAreMatchedCaseInsensitively() {
+        assertThat(gazetteer.isKnownDistrict("Dhaka")).isTrue();
+        assertThat(gazetteer.isKnownDistrict("  gazipur ")).isTrue();
+        assertThat(gazetteer.isKnownDistrict("Gulshan")).isFalse();
+        assertThat(gazetteer.isKnownDistrict(null)).isFalse();
+
+        assertThat(gazetteer.divisionOf("SYLHET")).isEqualTo("Sylhet");
+        assertThat(gazetteer.divisionOf("Narayanganj")).isEqualTo("Dhaka");
+        assertThat(gazetteer.divisionOf("Gulshan")).isNull();
+        assertThat(gazetteer.divisionOf(null)).isNull();
+    }
+
+    @Test
+    void currentOfficialSpellingsMatchTheLegacyNames() {
+        assertThat(gazetteer.isKnownDistrict("Chattogram")).isTrue();
+        assertThat(gazetteer.isKnownDistrict("Cumilla")).isTrue();
+        assertThat(gazetteer.isKnownDistrict("bogura")).isTrue();
+        assertThat(gazetteer.isKnownDistrict("Chapai Nawabganj")).isTrue();
+        assertThat(gazetteer.divisionOf("Jashore")).isEqualTo("Khulna");
+        assertThat(gazetteer.divisionOf("Barishal")).isEqualTo("Barisal");
+
+        assertThat(gazetteer.canonicalDistrict("Chattogram")).isEqualTo("Chittagong");
+        assertThat(gazetteer.canonicalDistrict(" jhalokathi ")).isEqualTo("Jhalokati");
+        assertThat(gazetteer.canonicalDistrict("dhaka")).isEqualTo("Dhaka");
+        assertThat(gazetteer.canonicalDistrict("Gulshan")).isNull();
+        assertThat(gazetteer.canonicalDistrict(null)).isNull();
+    }
+
+    @Test
+    void withoutUpazilaRowsOnlyDistrictsAreResolved() {
+        assertThat(gazetteer.hasUpazilaData()).isFalse();
+        assertThat(gazetteer.resolve(23.8103, 90.4125).getUpazila()).isNull();
+    }
+
+    private static void assertUnits(BangladeshGazetteer.AdminUnits units, String district, String division) {
+        assertThat(units).isNotNull();
+        assertThat(units.getDistrict()).isEqualTo(district);
+        assertThat(units.getDivision()).isEqualTo(division);
+    }
+}
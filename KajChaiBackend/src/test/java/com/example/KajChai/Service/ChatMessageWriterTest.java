@@ -0,0 +1,317 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.Enum.UserRole;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatMessageWriterTest {
+
+    private static final long BAD_ROOM = 999L;
+
+    private FakeJdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private ReminderCounterService reminderCounterService;
+    private ChatMessageWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new FakeJdbcTemplate();
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        reminderCounterService = mock(ReminderCounterService.class);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        jdbcTemplate.release.countDown();
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void messagesQueuedDuringAWriteGoOutAsOneBatch() throws Exception {
+        writer = writer("async", 3);
+        jdbcTemplate.holdFirstInsert();
+
+        ChatMessageWriter.PendingMessage first = append(100L, UserRole.CUSTOMER);
+        assertThat(jdbcTemplate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> queued = new ArrayList<>();
+        queued.add(append(100L, UserRole.CUSTOMER).getMessageId());
+        queued.add(append(200L, UserRole.WORKER).getMessageId());
+        queued.add(append(100L, UserRole.WORKER).getMessageId());
+        queued.add(append(100L, UserRole.CUSTOMER).getMessageId());
+        jdbcTemplate.release.countDown();
+
+        awaitRows(5);
+        assertThat(jdbcTemplate.insertBatches).containsExactly(List.of(first.getMessageId()), queued);
+        // Ids come from the reserved blocks in order, so the batch is in id order too
+        assertThat(queued).isSorted();
+
+        // One room update per room in the batch, carrying the latest id and each side's new unread messages
+        List<RoomUpdate> secondBatch = jdbcTemplate.roomBatches.get(1);
+        assertThat(secondBatch).extracting(RoomUpdate::roomId).containsExactly(100L, 200L);
+        verify(secondBatch.get(0).statement()).setLong(1, queued.get(3));
+        verify(secondBatch.get(0).statement()).setInt(3, 1);
+        verify(secondBatch.get(0).statement()).setInt(4, 2);
+        verify(secondBatch.get(1).statement()).setLong(1, queued.get(1));
+        verify(secondBatch.get(1).statement()).setInt(3, 1);
+        verify(secondBatch.get(1).statement()).setInt(4, 0);
+
+        verify(reminderCounterService, timeout(5000).times(5)).invalidateCustomer(1);
+        assertThat(meterRegistry.counter("chat.writebehind.failed").count()).isZero();
+    }
+
+    @Test
+    void failedBatchFallsBackToSingleRows() throws Exception {
+        writer = writer("async", 100);
+        jdbcTemplate.holdFirstInsert();
+        // Stands in for a foreign key violation on a room deleted meanwhile
+        jdbcTemplate.failure = batch -> batch.roomIds().contains(BAD_ROOM)
+            ? new DataIntegrityViolationException("room does not exist") : null;
+
+        ChatMessageWriter.PendingMessage first = append(100L, UserRole.CUSTOMER);
+        assertThat(jdbcTemplate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        ChatMessageWriter.PendingMessage good = append(100L, UserRole.CUSTOMER);
+        ChatMessageWriter.PendingMessage bad = append(BAD_ROOM, UserRole.CUSTOMER);
+        ChatMessageWriter.PendingMessage alsoGood = append(100L, UserRole.WORKER);
+        jdbcTemplate.release.countDown();
+
+        awaitRows(4);
+        assertThat(jdbcTemplate.insertBatches).containsExactly(
+            List.of(first.getMessageId()),
+            List.of(good.getMessageId(), bad.getMessageId(), alsoGood.getMessageId()),
+            List.of(good.getMessageId()),
+            List.of(bad.getMessageId()),
+            List.of(alsoGood.getMessageId()));
+        assertThat(jdbcTemplate.committed).containsExactly(first.getMessageId(), good.getMessageId(), alsoGood.getMessageId());
+        assertThat(meterRegistry.counter("chat.writebehind.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void transientFailureRetriesTheWholeBatch() throws Exception {
+        writer = writer("async", 100);
+        jdbcTemplate.failure = new Function<>() {
+            private boolean failed;
+
+            @Override
+            public RuntimeException apply(Batch batch) {
+                if (failed) {
+                    return null;
+                }
+                failed = true;
+                return new TransientDataAccessResourceException("connection reset");
+            }
+        };
+
+        ChatMessageWriter.PendingMessage message = append(100L, UserRole.CUSTOMER);
+
+        awaitRows(1);
+        assertThat(jdbcTemplate.insertBatches).containsExactly(List.of(message.getMessageId()), List.of(message.getMessageId()));
+        assertThat(jdbcTemplate.committed).containsExactly(message.getMessageId());
+        assertThat(meterRegistry.counter("chat.writebehind.failed").count()).isZero();
+    }
+
+    @Test
+    void syncModeInsertsEveryMessageBeforeReturning() {
+        writer = writer("sync", 3);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ChatMessageWriter.PendingMessage message = append(100L, UserRole.WORKER);
+            assertThat(jdbcTemplate.committed).contains(message.getMessageId());
+            ids.add(message.getMessageId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(jdbcTemplate.committed).containsExactlyElementsOf(ids);
+        // The sequence name is looked up once; four ids from blocks of three take two reservations
+        assertThat(jdbcTemplate.sequenceLookups).isEqualTo(1);
+        assertThat(jdbcTemplate.reservations).isEqualTo(2);
+        verify(reminderCounterService, times(4)).invalidateWorker(2);
+    }
+
+    @Test
+    void syncInsertsCommitBeforeTheNextIdIsAssigned() throws Exception {
+        writer = writer("sync", 100);
+        jdbcTemplate.holdFirstInsert();
+
+        AtomicReference<ChatMessageWriter.PendingMessage> first = new AtomicReference<>();
+        AtomicReference<ChatMessageWriter.PendingMessage> second = new AtomicReference<>();
+        Thread firstSender = new Thread(() -> first.set(append(100L, UserRole.CUSTOMER)));
+        firstSender.start();
+        assertThat(jdbcTemplate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread secondSender = new Thread(() -> second.set(append(100L, UserRole.WORKER)));
+        secondSender.start();
+
+        // The second sender waits for the first commit before it even gets an id
+        Thread.sleep(200);
+        assertThat(jdbcTemplate.insertBatches).hasSize(1);
+        jdbcTemplate.release.countDown();
+        firstSender.join(5000);
+        secondSender.join(5000);
+
+        assertThat(jdbcTemplate.committed).containsExactly(first.get().getMessageId(), second.get().getMessageId());
+        assertThat(jdbcTemplate.committed).isSorted();
+    }
+
+    private ChatMessageWriter writer(String durability, int idBlockSize) {
+        return new ChatMessageWriter(jdbcTemplate, transactionManager, meterRegistry, reminderCounterService,
+            durability, 100, 500, 200, idBlockSize);
+    }
+
+    private ChatMessageWriter.PendingMessage append(Long roomId, UserRole senderRole) {
+        Integer senderId = senderRole == UserRole.CUSTOMER ? 1 : 2;
+        return writer.append(roomId, 1, 2, senderId, senderRole, "hello");
+    }
+
+    private void awaitRows(double rows) throws InterruptedException {
+        await(() -> meterRegistry.counter("chat.writebehind.rows").count() >= rows);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("timed out waiting for the writer").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private record Batch(List<Long> messageIds, List<Long> roomIds) {
+    }
+
+    private record RoomUpdate(long roomId, PreparedStatement statement) {
+    }
+
+    /**
+     * Records the writer's statements instead of running them. Statement setters are applied to
+     * mocks, so each row's bound parameters can be checked. Transactions are not modeled; rows
+     * of a batch that failed simply never reach the committed list.
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        private final List<List<Long>> insertBatches = new CopyOnWriteArrayList<>();
+        private final List<List<RoomUpdate>> roomBatches = new CopyOnWriteArrayList<>();
+        private final List<Long> committed = new CopyOnWriteArrayList<>();
+        private volatile Function<Batch, RuntimeException> failure = batch -> null;
+        private volatile CountDownLatch entered = new CountDownLatch(0);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private int sequenceLookups;
+        private int reservations;
+        private long nextId = 1;
+
+        private void holdFirstInsert() {
+            entered = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            sequenceLookups++;
+            return (T) "chat_messages_message_id_seq";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            reservations++;
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < (Integer) args[1]; i++) {
+                ids.add(nextId++);
+            }
+            return (List<T>) ids;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            if (sql.startsWith("INSERT")) {
+                List<Long> ids = new ArrayList<>();
+                List<Long> roomIds = new ArrayList<>();
+                for (T item : batchArgs) {
+                    ChatMessageWriter.PendingMessage message = (ChatMessageWriter.PendingMessage) item;
+                    ids.add(message.getMessageId());
+                    roomIds.add(message.getRoomId());
+                    bind(pss, item);
+                }
+                insertBatches.add(ids);
+                awaitRelease();
+                RuntimeException error = failure.apply(new Batch(ids, roomIds));
+                if (error != null) {
+                    throw error;
+                }
+                committed.addAll(ids);
+            } else {
+                List<RoomUpdate> rooms = new ArrayList<>();
+                for (T item : batchArgs) {
+                    PreparedStatement statement = bind(pss, item);
+                    rooms.add(new RoomUpdate(roomIdOf(statement), statement));
+                }
+                roomBatches.add(rooms);
+            }
+            return new int[][] {new int[batchArgs.size()]};
+        }
+
+        private void awaitRelease() {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release = new CountDownLatch(0);
+        }
+
+        private static <T> PreparedStatement bind(ParameterizedPreparedStatementSetter<T> pss, T item) {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            try {
+                pss.setValues(statement, item);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return statement;
+        }
+
+        // The room id is the last parameter of the room update
+        private static long roomIdOf(PreparedStatement statement) {
+            return mockingDetails(statement).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("setLong")
+                    && invocation.getArgument(0).equals(5))
+                .map(invocation -> (Long) invocation.getArgument(1))
+                .findFirst()
+                .orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.KajChai.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoDistanceTest {
+
+    // Dhaka and Chittagong district headquarters
+    private static final double DHAKA_LAT = 23.8103;
+    private static final double DHAKA_LON = 90.4125;
+    private static final double CHITTAGONG_LAT = 22.3569;
+    private static final double CHITTAGONG_LON = 91.7832;
+
+    @Test
+    void samePointIsZero() {
+        assertThat(GeoDistance.haversineKm(DHAKA_LAT, DHAKA_LON, DHAKA_LAT, DHAKA_LON)).isZero();
+    }
+
+    @Test
+    void knownDistances() {
+        // One degree of latitude along a meridian is pi * R / 180
+        assertThat(GeoDistance.haversineKm(0, 0, 1, 0)).isCloseTo(Math.PI * GeoDistance.EARTH_RADIUS_KM / 180, within(1e-9));
+        assertThat(GeoDistance.haversineKm(DHAKA_LAT, DHAKA_LON, CHITTAGONG_LAT, CHITTAGONG_LON)).isCloseTo(215.0, within(3.0));
+    }
+
+    @Test
+    void isSymmetric() {
+        assertThat(GeoDistance.haversineKm(DHAKA_LAT, DHAKA_LON, CHITTAGONG_LAT, CHITTAGONG_LON))
+            .isEqualTo(GeoDistance.haversineKm(CHITTAGONG_LAT, CHITTAGONG_LON, DHAKA_LAT, DHAKA_LON));
+    }
+
+    @Test
+    void antipodalPointsAreHalfTheCircumference() {
+        assertThat(GeoDistance.haversineKm(0, 0, 0, 180)).isCloseTo(Math.PI * GeoDistance.EARTH_RADIUS_KM, within(1e-6));
+        assertThat(GeoDistance.haversineKm(90, 0, -90, 0)).isCloseTo(Math.PI * GeoDistance.EARTH_RADIUS_KM, within(1e-6));
+    }
+
+    @Test
+    void nanCoordinateGivesNaN() {
+        assertThat(GeoDistance.haversineKm(DHAKA_LAT, DHAKA_LON, Double.NaN, CHITTAGONG_LON)).isNaN();
+        assertThat(GeoDistance.distancesKm(DHAKA_LAT, DHAKA_LON, new double[] {Double.NaN}, new double[] {0})[0]).isNaN();
+    }
+
+    @Test
+    void matrixMatchesPairwiseDistances() {
+        double[] originLats = {DHAKA_LAT, CHITTAGONG_LAT, 24.8949};
+        double[] originLons = {DHAKA_LON, CHITTAGONG_LON, 91.8687};
+        double[] destinationLats = {23.9999, 22.3569, 24.3745, 23.8103};
+        double[] destinationLons = {90.4203, 91.7832, 91.4155, 90.4125};
+
+        double[][] matrix = GeoDistance.matrixKm(originLats, originLons, destinationLats, destinationLons);
+
+        assertThat(matrix).hasDimensions(3, 4);
+        for (int i = 0; i < originLats.length; i++) {
+            for (int j = 0; j < destinationLats.length; j++) {
+                assertThat(matrix[i][j]).isCloseTo(
+                    GeoDistance.haversineKm(originLats[i], originLons[i], destinationLats[j], destinationLons[j]), within(1e-9));
+            }
+        }
+        assertThat(GeoDistance.distancesKm(DHAKA_LAT, DHAKA_LON, destinationLats, destinationLons)).containsExactly(matrix[0]);
+    }
+
+    @Test
+    void mismatchedArraysAreRejected() {
+        assertThatThrownBy(() -> GeoDistance.matrixKm(new double[] {0}, new double[0], new double[0], new double[0]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GeoDistance.distancesKm(0, 0, new double[] {0, 1}, new double[] {0}))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
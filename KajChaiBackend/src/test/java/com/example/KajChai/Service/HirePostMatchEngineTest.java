@@ -0,0 +1,207 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DTO.HirePostDelta;
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.DatabaseEntity.WorkerStats;
+import com.example.KajChai.Repository.WorkerStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HirePostMatchEngineTest {
+
+    private static final double DHAKA_LAT = 23.8103;
+    private static final double DHAKA_LON = 90.4125;
+
+    private final LocalDateTime postedAt = LocalDateTime.now().minusHours(1);
+
+    private FakeJdbcTemplate jdbcTemplate;
+    private WorkerStatsRepository workerStatsRepository;
+    private Worker plumber;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new FakeJdbcTemplate();
+        workerStatsRepository = mock(WorkerStatsRepository.class);
+        when(workerStatsRepository.findById(any())).thenReturn(Optional.empty());
+        plumber = Worker.builder().workerId(7).field("Plumber").latitude(DHAKA_LAT).longitude(DHAKA_LON).build();
+
+        jdbcTemplate.put(new PostRow(1, "Plumber", null, postedAt, DHAKA_LAT, DHAKA_LON, 0));
+        jdbcTemplate.put(new PostRow(2, "Plumber", null, postedAt, 22.3569, 91.7832, 0)); // Chittagong
+        jdbcTemplate.put(new PostRow(3, "Electrician", LocalDate.now(), postedAt, DHAKA_LAT, DHAKA_LON, 20));
+        jdbcTemplate.put(new PostRow(4, "plumber", null, postedAt, DHAKA_LAT, DHAKA_LON, 0)); // Ties with 1
+        jdbcTemplate.put(new PostRow(5, "Plumber", LocalDate.now(), postedAt, DHAKA_LAT, DHAKA_LON, 0));
+        jdbcTemplate.put(new PostRow(6, "Plumber", null, postedAt, DHAKA_LAT, DHAKA_LON, 20));
+        jdbcTemplate.put(new PostRow(8, "Plumber", null, postedAt, null, null, 0)); // Customer without a location
+    }
+
+    @Test
+    void ranksOwnFieldByScoreThenPostId() {
+        HirePostMatchEngine engine = engine(200);
+
+        List<HirePostMatchEngine.Match> matches = engine.recommend(plumber, Double.POSITIVE_INFINITY, 0, 10);
+
+        // Customer history outweighs today's deadline, which outweighs nothing; distance decides the rest
+        assertThat(matches).extracting(HirePostMatchEngine.Match::getPostId).containsExactly(6, 5, 1, 4, 2, 8);
+        assertThat(matches.get(2).getScore()).isEqualTo(matches.get(3).getScore());
+        for (int i = 1; i < matches.size(); i++) {
+            assertThat(matches.get(i).getScore()).isLessThanOrEqualTo(matches.get(i - 1).getScore());
+        }
+    }
+
+    @Test
+    void cursorPagesPastTopKMatchTheFullRanking() {
+        List<Integer> full = ids(engine(200).recommend(plumber, Double.POSITIVE_INFINITY, 0, 10));
+
+        HirePostMatchEngine engine = engine(2);
+        List<Integer> paged = new ArrayList<>();
+        double afterScore = Double.POSITIVE_INFINITY;
+        int afterPostId = 0;
+        while (true) {
+            List<HirePostMatchEngine.Match> page = engine.recommend(plumber, afterScore, afterPostId, 2);
+            if (page.isEmpty()) {
+                break;
+            }
+            paged.addAll(ids(page));
+            HirePostMatchEngine.Match last = page.get(page.size() - 1);
+            afterScore = last.getScore();
+            afterPostId = last.getPostId();
+        }
+
+        assertThat(paged).containsExactlyElementsOf(full);
+    }
+
+    @Test
+    void reliableWorkersScoreUrgentPostsHigher() {
+        WorkerStats reliable = WorkerStats.builder().workerId(7).jobsCompleted(10L).activeJobs(0L).build();
+        WorkerStats unreliable = WorkerStats.builder().workerId(7).jobsCompleted(0L).activeJobs(10L).build();
+
+        when(workerStatsRepository.findById(7)).thenReturn(Optional.of(reliable));
+        double reliableScore = scoreOf(engine(200).recommend(plumber, Double.POSITIVE_INFINITY, 0, 10), 5);
+        when(workerStatsRepository.findById(7)).thenReturn(Optional.of(unreliable));
+        double unreliableScore = scoreOf(engine(200).recommend(plumber, Double.POSITIVE_INFINITY, 0, 10), 5);
+
+        assertThat(reliableScore).isGreaterThan(unreliableScore);
+    }
+
+    @Test
+    void deltasUpdateCachedListsInPlace() {
+        HirePostMatchEngine engine = engine(200);
+        engine.recommend(plumber, Double.POSITIVE_INFINITY, 0, 10);
+
+        // A new post right next to the worker from a customer with a long history goes to the top
+        jdbcTemplate.put(new PostRow(9, "Plumber", LocalDate.now(), postedAt, DHAKA_LAT, DHAKA_LON, 20));
+        engine.onHirePostDelta(delta(HirePostDelta.Type.CREATED, 9));
+        // A new post in another field never shows up
+        jdbcTemplate.put(new PostRow(10, "Electrician", LocalDate.now(), postedAt, DHAKA_LAT, DHAKA_LON, 20));
+        engine.onHirePostDelta(delta(HirePostDelta.Type.CREATED, 10));
+        // Booked by an edit: the delta is an update but the post is no longer available
+        jdbcTemplate.remove(5);
+        engine.onHirePostDelta(delta(HirePostDelta.Type.UPDATED, 5));
+        // Deleted
+        engine.onHirePostDelta(delta(HirePostDelta.Type.REMOVED, 1));
+
+        assertThat(ids(engine.recommend(plumber, Double.POSITIVE_INFINITY, 0, 10))).containsExactly(9, 6, 4, 2, 8);
+    }
+
+    @Test
+    void listIsRebuiltWhenWorkerChangesField() {
+        HirePostMatchEngine engine = engine(200);
+        engine.recommend(plumber, Double.POSITIVE_INFINITY, 0, 10);
+
+        Worker electrician = Worker.builder().workerId(7).field("Electrician").latitude(DHAKA_LAT).longitude(DHAKA_LON).build();
+        assertThat(ids(engine.recommend(electrician, Double.POSITIVE_INFINITY, 0, 10))).containsExactly(3);
+    }
+
+    private HirePostMatchEngine engine(int topK) {
+        HirePostMatchEngine engine = new HirePostMatchEngine(jdbcTemplate, workerStatsRepository, topK, 100, 15);
+        engine.reload();
+        return engine;
+    }
+
+    private static HirePostDelta delta(HirePostDelta.Type type, int postId) {
+        return HirePostDelta.builder().type(type).postId(postId).build();
+    }
+
+    private static List<Integer> ids(List<HirePostMatchEngine.Match> matches) {
+        return matches.stream().map(HirePostMatchEngine.Match::getPostId).toList();
+    }
+
+    private static double scoreOf(List<HirePostMatchEngine.Match> matches, int postId) {
+        return matches.stream().filter(match -> match.getPostId() == postId).findFirst().orElseThrow().getScore();
+    }
+
+    private record PostRow(int postId, String field, LocalDate deadline, LocalDateTime postTime,
+                           Double latitude, Double longitude, long completed) {
+    }
+
+    /**
+     * Serves the available-post query from an in-memory table, through the engine's own row mapper
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        private final Map<Integer, PostRow> rows = new LinkedHashMap<>();
+
+        private void put(PostRow row) {
+            rows.put(row.postId(), row);
+        }
+
+        private void remove(int postId) {
+            rows.remove(postId);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper) {
+            return map(new ArrayList<>(rows.values()), rowMapper);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            PostRow row = rows.get((Integer) args[0]);
+            return map(row == null ? List.of() : List.of(row), rowMapper);
+        }
+
+        private static <T> List<T> map(List<PostRow> source, RowMapper<T> rowMapper) {
+            List<T> mapped = new ArrayList<>();
+            try {
+                for (int i = 0; i < source.size(); i++) {
+                    mapped.add(rowMapper.mapRow(resultSet(source.get(i)), i));
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return mapped;
+        }
+
+        private static ResultSet resultSet(PostRow row) throws SQLException {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt("post_id")).thenReturn(row.postId());
+            when(rs.getString("field")).thenReturn(row.field());
+            when(rs.getDate("deadline")).thenReturn(row.deadline() != null ? Date.valueOf(row.deadline()) : null);
+            when(rs.getTimestamp("post_time")).thenReturn(row.postTime() != null ? Timestamp.valueOf(row.postTime()) : null);
+            when(rs.getObject("latitude")).thenReturn(row.latitude());
+            when(rs.getObject("longitude")).thenReturn(row.longitude());
+            when(rs.getDouble("latitude")).thenReturn(row.latitude() != null ? row.latitude() : 0.0);
+            when(rs.getDouble("longitude")).thenReturn(row.longitude() != null ? row.longitude() : 0.0);
+            when(rs.getLong("completed")).thenReturn(row.completed());
+            return rs;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.KajChai.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LocationServiceTest {
+
+    private static final String FOUND = "[{\"lat\": \"23.75\", \"lon\": \"90.39\"}]";
+    private static final String FOUND_ELSEWHERE = "[{\"lat\": \"22.33\", \"lon\": \"91.83\"}]";
+    private static final String EMPTY = "[]";
+
+    private final NominatimClient nominatimClient = mock(NominatimClient.class);
+    private final LocationService locationService = new LocationService(
+            nominatimClient, mock(ReverseGeocodeCache.class), new BangladeshGazetteer(80, 15));
+
+    @AfterEach
+    void shutdown() {
+        locationService.shutdown();
+    }
+
+    @Test
+    void anEmptyAnswerLaunchesTheNextVariantRightAway() {
+        when(nominatimClient.search(eq("dhanmondi 27"), anyString())).thenReturn(EMPTY);
+        when(nominatimClient.search(eq("dhanmondi 27, bangladesh"), anyString())).thenReturn(FOUND);
+
+        long start = System.currentTimeMillis();
+        Map<String, Double> result = locationService.geocodeAddress("Dhanmondi 27");
+
+        assertThat(result).containsEntry("latitude", 23.75).containsEntry("longitude", 90.39);
+        assertThat(System.currentTimeMillis() - start).isLessThan(900);
+        verify(nominatimClient, never()).search(eq("dhanmondi 27, dhaka, bangladesh"), anyString());
+    }
+
+    @Test
+    void aSlowVariantIsHedgedInsteadOfWaitedOut() {
+        when(nominatimClient.search(eq("mirpur 10"), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return EMPTY;
+        });
+        when(nominatimClient.search(eq("mirpur 10, bangladesh"), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return FOUND;
+        });
+
+        long start = System.currentTimeMillis();
+        Map<String, Double> result = locationService.geocodeAddress("Mirpur 10");
+
+        // One after the other would take five seconds; the hedge starts a second in and overlaps
+        assertThat(result).containsEntry("latitude", 23.75);
+        assertThat(System.currentTimeMillis() - start).isBetween(2900L, 4500L);
+    }
+
+    @Test
+    void hedgesStillRunningWhenAWinnerIsFoundAreCancelled() throws InterruptedException {
+        CountDownLatch hedgeCancelled = new CountDownLatch(1);
+        when(nominatimClient.search(eq("uttara"), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(1500);
+            return FOUND;
+        });
+        when(nominatimClient.search(eq("uttara, bangladesh"), anyString())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                hedgeCancelled.countDown();
+                throw e;
+            }
+            return FOUND_ELSEWHERE;
+        });
+
+        Map<String, Double> result = locationService.geocodeAddress("Uttara");
+
+        assertThat(result).containsEntry("latitude", 23.75);
+        assertThat(hedgeCancelled.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void anEarlierVariantWinsOverAFasterLaterOne() throws InterruptedException {
+        CountDownLatch hedgeAnswered = new CountDownLatch(1);
+        when(nominatimClient.search(eq("gulshan 2"), anyString())).thenAnswer(invocation -> {
+            hedgeAnswered.await(5, TimeUnit.SECONDS);
+            return FOUND;
+        });
+        when(nominatimClient.search(eq("gulshan 2, bangladesh"), anyString())).thenAnswer(invocation -> {
+            hedgeAnswered.countDown();
+            return FOUND_ELSEWHERE;
+        });
+
+        Map<String, Double> result = locationService.geocodeAddress("Gulshan 2");
+
+        assertThat(hedgeAnswered.getCount()).isZero();
+        assertThat(result).containsEntry("latitude", 23.75).containsEntry("longitude", 90.39);
+    }
+}
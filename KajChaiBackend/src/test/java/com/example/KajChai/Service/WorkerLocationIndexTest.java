@@ -0,0 +1,152 @@
+package com.example.KajChai.Service;
+
+import com.example.KajChai.DatabaseEntity.Worker;
+import com.example.KajChai.Repository.WorkerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkerLocationIndexTest {
+
+    private static final String[] FIELDS = {"Plumber", "Electrician", "Carpenter"};
+
+    private WorkerRepository workerRepository;
+    private WorkerLocationIndex index;
+    private List<Worker> population;
+
+    @BeforeEach
+    void setUp() {
+        workerRepository = mock(WorkerRepository.class);
+        index = new WorkerLocationIndex(workerRepository);
+
+        // Spread over greater Dhaka with some exact duplicates and some workers without coordinates
+        Random random = new Random(42);
+        population = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (int id = 1; id <= 600; id++) {
+            String field = FIELDS[random.nextInt(FIELDS.length)];
+            Double latitude = null;
+            Double longitude = null;
+            if (id % 10 != 0) {
+                latitude = id % 25 == 0 ? 23.8103 : 23.6 + random.nextDouble() * 0.5;
+                longitude = id % 25 == 0 ? 90.4125 : 90.2 + random.nextDouble() * 0.5;
+            }
+            population.add(Worker.builder().workerId(id).field(field).latitude(latitude).longitude(longitude).build());
+            rows.add(new Object[] {id, field, latitude, longitude});
+        }
+        when(workerRepository.findAllLocationEntries()).thenReturn(rows);
+        index.rebuild();
+    }
+
+    @Test
+    void pagesMatchBruteForceOrder() {
+        double latitude = 23.8103;
+        double longitude = 90.4125;
+        for (String field : new String[] {"plumber", "ELECTRICIAN", null}) {
+            List<Integer> expected = bruteForce(field, latitude, longitude);
+            assertThat(index.count(field)).isEqualTo(expected.size());
+
+            List<Integer> paged = new ArrayList<>();
+            for (int offset = 0; offset < expected.size() + 20; offset += 17) {
+                paged.addAll(index.findNearest(field, latitude, longitude, offset, 17));
+            }
+            assertThat(paged).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void queriesFarFromEveryWorkerStillFindThem() {
+        // Chittagong, well outside the populated area
+        List<Integer> expected = bruteForce("carpenter", 22.3569, 91.7832);
+        assertThat(index.findNearest("carpenter", 22.3569, 91.7832, 0, 5)).containsExactlyElementsOf(expected.subList(0, 5));
+    }
+
+    @Test
+    void nearestLocatedReportsDistancesAndSkipsUnlocated() {
+        List<WorkerLocationIndex.Neighbor> neighbors = index.findNearestLocated("Plumber", 23.8103, 90.4125, 1000);
+        List<Integer> expected = bruteForce("Plumber", 23.8103, 90.4125).stream()
+            .filter(id -> population.get(id - 1).getLatitude() != null)
+            .toList();
+
+        assertThat(neighbors).extracting(WorkerLocationIndex.Neighbor::getWorkerId).containsExactlyElementsOf(expected);
+        for (WorkerLocationIndex.Neighbor neighbor : neighbors) {
+            Worker worker = population.get(neighbor.getWorkerId() - 1);
+            assertThat(neighbor.getDistanceKm()).isEqualTo(
+                GeoDistance.haversineKm(23.8103, 90.4125, worker.getLatitude(), worker.getLongitude()));
+        }
+    }
+
+    @Test
+    void unlocatedWorkersFollowLocatedOnesInIdOrder() {
+        List<Integer> all = index.findNearest("plumber", 23.8103, 90.4125, 0, 1000);
+        List<Integer> unlocated = population.stream()
+            .filter(worker -> worker.getLatitude() == null && worker.getField().equals("Plumber"))
+            .map(Worker::getWorkerId)
+            .toList();
+
+        assertThat(all.subList(all.size() - unlocated.size(), all.size())).containsExactlyElementsOf(unlocated);
+    }
+
+    @Test
+    void upsertMovesWorkerBetweenFieldsAndLocations() {
+        Worker worker = population.get(0);
+        String otherField = worker.getField().equals("Plumber") ? "Electrician" : "Plumber";
+        int oldFieldCount = index.count(worker.getField());
+        int otherFieldCount = index.count(otherField);
+
+        Worker moved = Worker.builder().workerId(worker.getWorkerId()).field(otherField).latitude(22.3569).longitude(91.7832).build();
+        index.upsert(moved);
+
+        assertThat(index.count(worker.getField())).isEqualTo(oldFieldCount - 1);
+        assertThat(index.count(otherField)).isEqualTo(otherFieldCount + 1);
+        assertThat(index.count(null)).isEqualTo(population.size());
+        assertThat(index.findNearest(otherField, 22.3569, 91.7832, 0, 1)).containsExactly(worker.getWorkerId());
+        assertThat(index.findNearest(worker.getField(), 23.8103, 90.4125, 0, 1000)).doesNotContain(worker.getWorkerId());
+    }
+
+    @Test
+    void deleteRemovesWorkerEverywhere() {
+        Worker worker = population.get(1);
+        index.delete(worker.getWorkerId());
+
+        assertThat(index.count(null)).isEqualTo(population.size() - 1);
+        assertThat(index.findNearest(null, worker.getLatitude(), worker.getLongitude(), 0, 1000)).doesNotContain(worker.getWorkerId());
+        assertThat(index.findNearest(worker.getField(), worker.getLatitude(), worker.getLongitude(), 0, 1000)).doesNotContain(worker.getWorkerId());
+
+        // Deleting an unknown worker is a no-op
+        index.delete(-1);
+        assertThat(index.count(null)).isEqualTo(population.size() - 1);
+    }
+
+    @Test
+    void unknownFieldAndInvalidPagesAreEmpty() {
+        assertThat(index.count("Painter")).isZero();
+        assertThat(index.findNearest("Painter", 23.8103, 90.4125, 0, 10)).isEmpty();
+        assertThat(index.findNearest("Plumber", 23.8103, 90.4125, 0, 0)).isEmpty();
+        assertThat(index.findNearest("Plumber", 23.8103, 90.4125, -1, 10)).isEmpty();
+        assertThat(index.findNearestLocated("Painter", 23.8103, 90.4125, 10)).isEmpty();
+    }
+
+    // Every worker of the field sorted by (distance, id), unlocated workers last by id
+    private List<Integer> bruteForce(String field, double latitude, double longitude) {
+        String key = WorkerLocationIndex.fieldKey(field);
+        Comparator<Worker> order = Comparator
+            .comparing((Worker worker) -> worker.getLatitude() == null)
+            .thenComparingDouble(worker -> worker.getLatitude() == null ? 0.0
+                : GeoDistance.haversineKm(latitude, longitude, worker.getLatitude(), worker.getLongitude()))
+            .thenComparing(Worker::getWorkerId);
+        return population.stream()
+            .filter(worker -> key.equals("*") || WorkerLocationIndex.fieldKey(worker.getField()).equals(key))
+            .sorted(order)
+            .map(Worker::getWorkerId)
+            .toList();
+    }
+}
@@ -20,7 +20,10 @@ const Chat = () => {
     const [sendingMessage, setSendingMessage] = useState(false);
     const [wsConnected, setWsConnected] = useState(false);
     const [allRoomsSubscribed, setAllRoomsSubscribed] = useState(false);
+    const [hasOlderMessages, setHasOlderMessages] = useState(false);
+    const [loadingOlder, setLoadingOlder] = useState(false);
     const messagesEndRef = useRef(null);
+    const skipScrollRef = useRef(false); // Older messages are prepended without jumping to the bottom
 
     if (!user) {
         return <Navigate to="/login" replace />;
@@ -32,6 +35,10 @@ const Chat = () => {
     };
 
     useEffect(() => {
+        if (skipScrollRef.current) {
+            skipScrollRef.current = false;
+            return;
+        }
         scrollToBottom();
     }, [messages]);
 
@@ -170,6 +177,22 @@ const Chat = () => {
         console.log('✅ Subscribed to all chat rooms for real-time updates');
     };
 
+    // When the other participant reads the open room, mark our messages up to their watermark as read
+    useEffect(() => {
+        if (!wsConnected) return;
+
+        webSocketService.setReadReceiptHandler((receipt, roomId) => {
+            if (receipt.readerRole === user.role || selectedRoom?.roomId !== roomId) return;
+            setMessages(prevMessages => prevMessages.map(message =>
+                !message.isPending && message.senderRole === user.role && message.messageId <= receipt.lastReadMessageId
+                    ? { ...message, isRead: true }
+                    : message
+            ));
+        });
+
+        return () => webSocketService.setReadReceiptHandler(null);
+    }, [selectedRoom, wsConnected]);
+
     // Update handler for selected room (no longer need to subscribe/unsubscribe)
     useEffect(() => {
         if (selectedRoom && wsConnected && allRoomsSubscribed) {
@@ -214,6 +237,7 @@ const Chat = () => {
             const response = await chatService.getChatMessages(roomId);
             if (response.success) {
                 setMessages(response.messages || []);
+                setHasOlderMessages(!!response.hasMore);
                 // Mark messages as read
                 await chatService.markMessagesAsRead(roomId);
                 // Refresh chat rooms to update unread count
@@ -224,6 +248,25 @@ const Chat = () => {
         }
     };
 
+    const loadOlderMessages = async () => {
+        const oldest = messages.find(message => !message.isPending);
+        if (!selectedRoom || !oldest || loadingOlder) return;
+
+        setLoadingOlder(true);
+        try {
+            const response = await chatService.getChatMessages(selectedRoom.roomId, { before: oldest.messageId });
+            if (response.success) {
+                skipScrollRef.current = true;
+                setMessages(prevMessages => [...(response.messages || []), ...prevMessages]);
+                setHasOlderMessages(!!response.hasMore);
+            }
+        } catch (error) {
+            console.error('Failed to load older messages:', error);
+        } finally {
+            setLoadingOlder(false);
+        }
+    };
+
     const handleRoomSelect = async (room) => {
         setSelectedRoom(room);
         loadMessages(room.roomId);
@@ -504,10 +547,19 @@ const Chat = () => {
                         {/* Messages Area */}
                         <div className="messages-container">
                             <div className="messages-list">
+                                {hasOlderMessages && (
+                                    <button
+                                        className="load-older-messages"
+                                        onClick={loadOlderMessages}
+                                        disabled={loadingOlder}
+                                    >
+                                        {loadingOlder ? t('common.loading') : t('chat.loadOlderMessages')}
+                                    </button>
+                                )}
                                 {messages.map(message => (
                                     <div 
                                         key={message.messageId}
-                                        className={`message ${message.senderId === getCurrentUserId() ? 'sent' : 'received'} ${message.isPending ? 'pending' : ''}`}
+                                        className={`message ${message.senderId === getCurrentUserId() ? 'sent' : 'received'} ${message.isPending ? 'pending' : ''} ${message.isRead ? 'read' : ''}`}
                                     >
                                         <div className="message-content">
                                             {message.content}
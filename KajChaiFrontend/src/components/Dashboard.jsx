@@ -95,11 +95,13 @@ const Dashboard = () => {
 
   const customerStats = customerStatsData ? [
     { label: t('dashboard.activeHirePosts', 'Active Hire Posts'), value: customerStatsData.activeHirePosts?.toString() || '0', icon: '📝', color: '#3498db' },
+    { label: t('dashboard.expiredHirePosts', 'Expired Hire Posts'), value: customerStatsData.expiredHirePosts?.toString() || '0', icon: '⌛', color: '#7f8c8d' },
     { label: t('dashboard.completedJobs', 'Completed Jobs'), value: customerStatsData.completedJobs?.toString() || '0', icon: '✅', color: '#27ae60' },
     { label: t('dashboard.totalSpent', 'Total Spent'), value: `$${customerStatsData.totalSpent?.toFixed(2) || '0.00'}`, icon: '💰', color: '#f39c12' },
     { label: t('dashboard.reviewsGiven', 'Reviews Given'), value: customerStatsData.reviewsGiven?.toString() || '0', icon: '⭐', color: '#e74c3c' },
   ] : [
     { label: t('dashboard.activeHirePosts', 'Active Hire Posts'), value: '3', icon: '📝', color: '#3498db' },
+    { label: t('dashboard.expiredHirePosts', 'Expired Hire Posts'), value: '1', icon: '⌛', color: '#7f8c8d' },
     { label: t('dashboard.completedJobs', 'Completed Jobs'), value: '12', icon: '✅', color: '#27ae60' },
     { label: t('dashboard.totalSpent', 'Total Spent'), value: '$1,250', icon: '💰', color: '#f39c12' },
     { label: t('dashboard.reviewsGiven', 'Reviews Given'), value: '8', icon: '⭐', color: '#e74c3c' },
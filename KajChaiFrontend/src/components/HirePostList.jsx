@@ -16,6 +16,8 @@ const HirePostList = ({ viewMode }) => {
   const [sortByLocation, setSortByLocation] = useState(false); // Location sorting toggle
   const [applicationStatus, setApplicationStatus] = useState({}); // Track which posts worker has applied to
   const [expandedPosts, setExpandedPosts] = useState(new Set()); // Track expanded descriptions
+  const [nextCursor, setNextCursor] = useState(null); // Set while the server has more pages
+  const [loadingMore, setLoadingMore] = useState(false);
 
   // Automatically determine viewMode based on user role if not explicitly provided
   const effectiveViewMode = viewMode || (user?.role === 'CUSTOMER' ? 'customer' : 'worker');
@@ -24,22 +26,25 @@ const HirePostList = ({ viewMode }) => {
     loadPosts();
   }, [effectiveViewMode, selectedField, sortByLocation]);
 
+  const fetchPage = (cursor) => {
+    if (effectiveViewMode === 'customer') {
+      return hirePostService.getMyHirePosts(cursor);
+    } else if (effectiveViewMode === 'worker') {
+      return hirePostService.getAvailableHirePosts(selectedField || null, sortByLocation, cursor);
+    }
+    return hirePostService.getAvailableHirePosts(null, false, cursor);
+  };
+
   const loadPosts = async () => {
     setLoading(true);
     setError('');
 
     try {
-      let data;
-      if (effectiveViewMode === 'customer') {
-        data = await hirePostService.getMyHirePosts();
-      } else if (effectiveViewMode === 'worker') {
-        data = await hirePostService.getAvailableHirePosts(selectedField || null, sortByLocation);
-        // Check application status for each post
-        await checkApplicationStatus(data);
-      } else {
-        data = await hirePostService.getAvailableHirePosts();
-      }
-      setPosts(data);
+      const page = await fetchPage(null);
+      // Check application status for each post
+      await checkApplicationStatus(page.posts);
+      setPosts(page.posts);
+      setNextCursor(page.hasNext ? page.nextCursor : null);
     } catch (err) {
       setError(err.response?.data?.message || t('jobs.failedToLoadPosts'));
     } finally {
@@ -47,6 +52,21 @@ const HirePostList = ({ viewMode }) => {
     }
   };
 
+  const loadMorePosts = async () => {
+    setLoadingMore(true);
+
+    try {
+      const page = await fetchPage(nextCursor);
+      await checkApplicationStatus(page.posts);
+      setPosts(prev => [...prev, ...page.posts]);
+      setNextCursor(page.hasNext ? page.nextCursor : null);
+    } catch (err) {
+      setError(err.response?.data?.message || t('jobs.failedToLoadPosts'));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const checkApplicationStatus = async (posts) => {
     if (effectiveViewMode !== 'worker') return;
     
@@ -60,7 +80,7 @@ const HirePostList = ({ viewMode }) => {
         statusMap[post.postId] = false;
       }
     }
-    setApplicationStatus(statusMap);
+    setApplicationStatus(prev => ({ ...prev, ...statusMap }));
   };
 
   const handleApplyToPost = async (postId) => {
@@ -86,16 +106,37 @@ const HirePostList = ({ viewMode }) => {
     }
   };
 
+  const handleReopenPost = async (postId) => {
+    // Re-opening an expired post needs a deadline of today or later
+    const deadline = prompt(t('jobs.enterNewDeadline'));
+    if (deadline === null) {
+      return;
+    }
+    const today = new Date().toISOString().split('T')[0];
+    if (!/^\d{4}-\d{2}-\d{2}$/.test(deadline) || isNaN(Date.parse(deadline)) || deadline < today) {
+      alert(t('jobs.invalidDeadline'));
+      return;
+    }
+    try {
+      await hirePostService.updateHirePost(postId, { deadline });
+      loadPosts(); // Refresh the list
+    } catch (err) {
+      alert(err.response?.data?.message || t('jobs.failedToReopenPost'));
+    }
+  };
+
   const getStatusBadge = (status) => {
     const statusClass = {
       'AVAILABLE': 'status-available',
       'BOOKED': 'status-booked',
-      'COMPLETED': 'status-completed'
+      'COMPLETED': 'status-completed',
+      'EXPIRED': 'status-expired'
     };
     const statusText = {
       'AVAILABLE': t('jobs.status.available'),
       'BOOKED': t('jobs.status.booked'),
-      'COMPLETED': t('jobs.status.completed')
+      'COMPLETED': t('jobs.status.completed'),
+      'EXPIRED': t('jobs.status.expired')
     };
     return <span className={`status-badge ${statusClass[status]}`}>{statusText[status]}</span>;
   };
@@ -178,148 +219,171 @@ const HirePostList = ({ viewMode }) => {
             t('jobs.noAvailableJobs')}
         </div>
       ) : (
-        <div className="posts-grid">
-          {posts.map(post => (
-            <div key={post.postId} className="hire-post-card">
-              <div className="card-header">
-                <div className="field-badge">{getFieldTranslation(post.field)}</div>
-                {getStatusBadge(post.status)}
-              </div>
+        <>
+          <div className="posts-grid">
+            {posts.map(post => (
+              <div key={post.postId} className="hire-post-card">
+                <div className="card-header">
+                  <div className="field-badge">{getFieldTranslation(post.field)}</div>
+                  {getStatusBadge(post.status)}
+                </div>
               
-              <div className="card-content">
-                {post.images && post.images.length > 0 && (
-                  <div className="post-images">
-                    {post.images.slice(0, 3).map((image, index) => (
-                      <img 
-                        key={index} 
-                        src={image} 
-                        alt={`Post image ${index + 1}`}
-                        className="post-image"
-                        onError={(e) => {
-                          e.target.style.display = 'none';
-                        }}
-                      />
-                    ))}
-                    {post.images.length > 3 && (
-                      <div className="more-images">
-                        +{post.images.length - 3} {t('jobs.moreImages')}
-                      </div>
-                    )}
-                  </div>
-                )}
+                <div className="card-content">
+                  {post.images && post.images.length > 0 && (
+                    <div className="post-images">
+                      {post.images.slice(0, 3).map((image, index) => (
+                        <img 
+                          key={index} 
+                          src={image} 
+                          alt={`Post image ${index + 1}`}
+                          className="post-image"
+                          onError={(e) => {
+                            e.target.style.display = 'none';
+                          }}
+                        />
+                      ))}
+                      {post.images.length > 3 && (
+                        <div className="more-images">
+                          +{post.images.length - 3} {t('jobs.moreImages')}
+                        </div>
+                      )}
+                    </div>
+                  )}
                 
-                <div className="description-container">
-                  <p className="description">
-                    {post.description.length > 150 ? (
-                      <>
-                        {expandedPosts.has(post.postId) 
-                          ? post.description 
-                          : `${post.description.substring(0, 150)}...`}
-                        <button 
-                          className="toggle-description"
-                          onClick={() => handleToggleDescription(post.postId)}
-                        >
+                  <div className="description-container">
+                    <p className="description">
+                      {post.description.length > 150 ? (
+                        <>
                           {expandedPosts.has(post.postId) 
-                            ? t('jobs.seeLess') 
-                            : t('jobs.seeMore')}
-                        </button>
-                      </>
-                    ) : (
-                      post.description
-                    )}
-                  </p>
-                </div>
-                
-                <div className="post-details">
-                  <div className="detail-item">
-                    <strong>{t('jobs.payment')}:</strong> {formatCurrency(post.payment)}
+                            ? post.description 
+                            : `${post.description.substring(0, 150)}...`}
+                          <button 
+                            className="toggle-description"
+                            onClick={() => handleToggleDescription(post.postId)}
+                          >
+                            {expandedPosts.has(post.postId) 
+                              ? t('jobs.seeLess') 
+                              : t('jobs.seeMore')}
+                          </button>
+                        </>
+                      ) : (
+                        post.description
+                      )}
+                    </p>
                   </div>
-                  
-                  {post.deadline && (
+                
+                  <div className="post-details">
                     <div className="detail-item">
-                      <strong>{t('jobs.deadline')}:</strong> {formatDate(post.deadline)}
+                      <strong>{t('jobs.payment')}:</strong> {formatCurrency(post.payment)}
                     </div>
-                  )}
-                  
-                  <div className="detail-item">
-                    <strong>{t('jobs.posted')}:</strong> {formatDate(post.postTime)}
-                  </div>
                   
-                  {effectiveViewMode !== 'customer' && (
-                    <div className="customer-info">
-                      <strong>{t('jobs.customer')}:</strong> {post.customerName} ({post.customerUpazila})
-                    </div>
-                  )}
+                    {post.deadline && (
+                      <div className="detail-item">
+                        <strong>{t('jobs.deadline')}:</strong> {formatDate(post.deadline)}
+                      </div>
+                    )}
                   
-                  {effectiveViewMode === 'customer' && (
                     <div className="detail-item">
-                      <strong>{t('jobs.applications')}:</strong> {post.applicationsCount}
+                      <strong>{t('jobs.posted')}:</strong> {formatDate(post.postTime)}
                     </div>
-                  )}
+                  
+                    {effectiveViewMode !== 'customer' && (
+                      <div className="customer-info">
+                        <strong>{t('jobs.customer')}:</strong> {post.customerName} ({post.customerUpazila})
+                      </div>
+                    )}
+                  
+                    {effectiveViewMode === 'customer' && (
+                      <div className="detail-item">
+                        <strong>{t('jobs.applications')}:</strong> {post.applicationsCount}
+                      </div>
+                    )}
+                  </div>
                 </div>
-              </div>
               
-              <div className="card-actions">
-                {effectiveViewMode === 'customer' ? (
-                  <>
-                    {(post.status === 'AVAILABLE' || post.status === 'BOOKED') && (
-                      <button 
-                        className="btn-primary"
-                        onClick={() => navigate(`/my-posts/${post.postId}/applications`)}
-                      >
-                        {t('jobs.viewApplications')} ({post.applicationsCount})
-                      </button>
-                    )}
+                <div className="card-actions">
+                  {effectiveViewMode === 'customer' ? (
+                    <>
+                      {(post.status === 'AVAILABLE' || post.status === 'BOOKED') && (
+                        <button 
+                          className="btn-primary"
+                          onClick={() => navigate(`/my-posts/${post.postId}/applications`)}
+                        >
+                          {t('jobs.viewApplications')} ({post.applicationsCount})
+                        </button>
+                      )}
                     
-                    {post.status === 'AVAILABLE' && (
-                      <button 
-                        className="btn-danger"
-                        onClick={() => handleDeletePost(post.postId)}
-                      >
-                        {t('jobs.delete')}
-                      </button>
-                    )}
+                      {post.status === 'EXPIRED' && (
+                        <button 
+                          className="btn-primary"
+                          onClick={() => handleReopenPost(post.postId)}
+                        >
+                          {t('jobs.reopen')}
+                        </button>
+                      )}
                     
-                    {post.status === 'BOOKED' && (
-                      <button 
-                        className="btn-success"
-                        onClick={() => {
-                          // Prompt for payment amount
-                          const paymentAmount = prompt(t('jobs.enterPaymentAmount'));
-                          if (paymentAmount && !isNaN(paymentAmount) && parseFloat(paymentAmount) > 0) {
-                            hirePostService.markPostAsCompleted(post.postId, parseFloat(paymentAmount))
-                              .then(() => loadPosts())
-                              .catch(err => alert(err.response?.data?.message || t('jobs.failedToMarkCompleted')));
-                          } else if (paymentAmount !== null) {
-                            alert(t('jobs.invalidPaymentAmount'));
-                          }
-                        }}
-                      >
-                        {t('jobs.markAsCompleted')}
-                      </button>
-                    )}
-                  </>
-                ) : (
-                  effectiveViewMode === 'worker' && post.status === 'AVAILABLE' && (
-                    applicationStatus[post.postId] ? (
-                      <div className="application-status">
-                        <span className="applied-badge">✓ {t('jobs.alreadyApplied')}</span>
-                        <small className="applied-text">{t('jobs.applicationSubmitted')}</small>
-                      </div>
-                    ) : (
-                      <button 
-                        className="btn-primary"
-                        onClick={() => handleApplyToPost(post.postId)}
-                      >
-                        {t('jobs.applyForJob')}
-                      </button>
+                      {(post.status === 'AVAILABLE' || post.status === 'EXPIRED') && (
+                        <button 
+                          className="btn-danger"
+                          onClick={() => handleDeletePost(post.postId)}
+                        >
+                          {t('jobs.delete')}
+                        </button>
+                      )}
+                    
+                      {post.status === 'BOOKED' && (
+                        <button 
+                          className="btn-success"
+                          onClick={() => {
+                            // Prompt for payment amount
+                            const paymentAmount = prompt(t('jobs.enterPaymentAmount'));
+                            if (paymentAmount && !isNaN(paymentAmount) && parseFloat(paymentAmount) > 0) {
+                              hirePostService.markPostAsCompleted(post.postId, parseFloat(paymentAmount))
+                                .then(() => loadPosts())
+                                .catch(err => alert(err.response?.data?.message || t('jobs.failedToMarkCompleted')));
+                            } else if (paymentAmount !== null) {
+                              alert(t('jobs.invalidPaymentAmount'));
+                            }
+                          }}
+                        >
+                          {t('jobs.markAsCompleted')}
+                        </button>
+                      )}
+                    </>
+                  ) : (
+                    effectiveViewMode === 'worker' && post.status === 'AVAILABLE' && (
+                      applicationStatus[post.postId] ? (
+                        <div className="application-status">
+                          <span className="applied-badge">✓ {t('jobs.alreadyApplied')}</span>
+                          <small className="applied-text">{t('jobs.applicationSubmitted')}</small>
+                        </div>
+                      ) : (
+                        <button 
+                          className="btn-primary"
+                          onClick={() => handleApplyToPost(post.postId)}
+                        >
+                          {t('jobs.applyForJob')}
+                        </button>
+                      )
                     )
-                  )
-                )}
+                  )}
+                </div>
               </div>
+            ))}
+          </div>
+
+          {nextCursor && (
+            <div className="load-more">
+              <button
+                className="btn-primary"
+                onClick={loadMorePosts}
+                disabled={loadingMore}
+              >
+                {loadingMore ? t('common.loading') : t('jobs.loadMore')}
+              </button>
             </div>
-          ))}
-        </div>
+          )}
+        </>
       )}
     </div>
   );
@@ -68,9 +68,12 @@ export const chatAPI = {
     return apiClient.post(`/chat/rooms?otherUserId=${otherUserId}`);
   },
 
-  // Get messages for a chat room
-  getChatMessages: (roomId) => {
-    return apiClient.get(`/chat/rooms/${roomId}/messages`);
+  // Get a page of messages for a chat room, oldest first; pass before (the oldest loaded id) to page back
+  getChatMessages: (roomId, { before = null, after = null, limit = 50 } = {}) => {
+    const params = { limit };
+    if (before) params.before = before;
+    if (after) params.after = after;
+    return apiClient.get(`/chat/rooms/${roomId}/messages`, { params });
   },
 
   // Send a message
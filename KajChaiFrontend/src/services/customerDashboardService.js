@@ -1,6 +1,5 @@
 import axios from 'axios';
 import { API_CONFIG } from '../config/api.js';
-import hirePostService from './hirePostService.js';
 import reviewService from './reviewService.js';
 
 const API_BASE_URL = `${API_CONFIG.BASE_URL}/api`;
@@ -63,22 +62,9 @@ const customerDashboardService = {
   // Get customer dashboard statistics
   getCustomerDashboardStats: async () => {
     try {
-      // Get all hire posts for the customer
-      const hirePosts = await hirePostService.getMyHirePosts();
-      
-      // Calculate statistics
-      const activeHirePosts = hirePosts.filter(post => 
-        post.status === 'AVAILABLE' || post.status === 'BOOKED'
-      ).length;
-      
-      const completedJobs = hirePosts.filter(post => 
-        post.status === 'COMPLETED'
-      ).length;
-      
-      // Calculate total spent from completed jobs
-      const totalSpent = hirePosts
-        .filter(post => post.status === 'COMPLETED' && post.payment)
-        .reduce((sum, post) => sum + (post.payment || 0), 0);
+      // Post counts and total spent are aggregated on the server
+      const response = await apiClient.get('/customer/dashboard/stats');
+      const { activeHirePosts, expiredHirePosts, completedJobs, totalSpent } = response.stats;
       
       // Get reviews given by this customer
       let reviewsGiven = 0;
@@ -93,6 +79,7 @@ const customerDashboardService = {
       
       return {
         activeHirePosts,
+        expiredHirePosts,
         completedJobs,
         totalSpent,
         reviewsGiven
@@ -63,16 +63,21 @@ export const hirePostAPI = {
     return apiClient.post('/hireposts', hirePostData);
   },
 
-  // Get my hire posts (Customer only)
-  getMyHirePosts: () => {
-    return apiClient.get('/hireposts/my-posts');
+  // Get a page of my hire posts (Customer only); pass the previous page's nextCursor for the next one
+  getMyHirePosts: (cursor = null, limit = null) => {
+    const params = {};
+    if (cursor) params.cursor = cursor;
+    if (limit) params.limit = limit;
+    return apiClient.get('/hireposts/my-posts', { params });
   },
 
-  // Get available hire posts (for workers to browse)
-  getAvailableHirePosts: (field = null, sortByLocation = false) => {
+  // Get a page of available hire posts (for workers to browse)
+  getAvailableHirePosts: (field = null, sortByLocation = false, cursor = null, limit = null) => {
     const params = {};
     if (field) params.field = field;
     if (sortByLocation) params.sortByLocation = true;
+    if (cursor) params.cursor = cursor;
+    if (limit) params.limit = limit;
     return apiClient.get('/hireposts/available', { params });
   },
 
@@ -165,7 +170,8 @@ export const JOB_FIELDS = [
 export const HIRE_POST_STATUS = {
   AVAILABLE: 'AVAILABLE',
   BOOKED: 'BOOKED',
-  COMPLETED: 'COMPLETED'
+  COMPLETED: 'COMPLETED',
+  EXPIRED: 'EXPIRED'
 };
 
 // Notification statuses
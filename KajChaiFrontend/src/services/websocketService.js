@@ -9,6 +9,7 @@ class WebSocketService {
     this.subscriptions = new Map();
     this.messageHandlers = new Map();
     this.globalMessageHandler = null; // Handler for all room messages
+    this.readReceiptHandler = null; // Handler for read receipts in any room
   }
 
   connect(userId, userRole) {
@@ -110,6 +111,15 @@ class WebSocketService {
     const subscription = this.client.subscribe(destination, (message) => {
       try {
         const messageData = JSON.parse(message.body);
+        
+        // Read receipts share the room topic but are not chat messages
+        if (messageData.type === 'READ_RECEIPT') {
+          if (this.readReceiptHandler) {
+            this.readReceiptHandler(messageData, roomId);
+          }
+          return;
+        }
+        
         console.log('📨 Received real-time message for room', roomId, ':', messageData);
         
         // Call the global message handler for all rooms
@@ -149,6 +159,11 @@ class WebSocketService {
     this.globalMessageHandler = handler;
   }
 
+  // Set handler for read receipts from all rooms
+  setReadReceiptHandler(handler) {
+    this.readReceiptHandler = handler;
+  }
+
   unsubscribeFromRoom(roomId) {
     if (this.subscriptions.has(roomId)) {
       this.subscriptions.get(roomId).unsubscribe();